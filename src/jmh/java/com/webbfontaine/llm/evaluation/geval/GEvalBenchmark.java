@@ -0,0 +1,88 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per test case overhead of the {@link GEval} hot path against a zero-latency
+ * {@link StubChatLanguageModel}: text generation, reply parsing, and end-to-end {@link GEval#measure(LLMTestCase)}.
+ *
+ * <p>Run with {@code ./gradlew jmh}; the GC profiler reports the allocated bytes per operation
+ * in {@code gc.alloc.rate.norm}, and results are written to {@code build/results/jmh/results.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GEvalBenchmark {
+
+    private static final String STRICT_REPLY = """
+        {"score": 8, "reason": "The actual output selects the same rows as the expected output."}""";
+
+    private static final String FENCED_REPLY = """
+        Here is the evaluation:
+        ```json
+        {"score": "8/10", "reason": "The actual output selects the same rows as the expected output.",}
+        ```""";
+
+    private static final List<String> EVALUATION_STEPS = List.of(
+        "Check whether the query 'actual output' contradicts any query in 'expected output'.",
+        "You should also heavily penalize if where condition is incorrect.",
+        "You should also heavily penalize if unnecessary joins are made"
+    );
+
+    private LLMTestCase llmTestCase;
+    private GEval gEval;
+
+    @Setup
+    public void setUp() {
+        llmTestCase = new LLMTestCase(
+            "Get means of payment for receipt id 352 with all fields in the table",
+            "SELECT * FROM payment_means WHERE receipt = 352",
+            "select * from payment_means means where means.receipt = 352"
+        );
+        final Executor callerRuns = Runnable::run;
+        gEval = GEval.builder()
+            .name("Correctness")
+            .threshold(0.7)
+            .evaluationSteps(EVALUATION_STEPS)
+            .withGEvalLlmParams(new GEvalLlmParams(new StubChatLanguageModel(STRICT_REPLY), new ObjectMapper()))
+            .executor(callerRuns)
+            .build();
+    }
+
+    @Benchmark
+    public String generateText() {
+        return llmTestCase.generateText();
+    }
+
+    @Benchmark
+    public EvaluationResponse parseStrictReply() {
+        return gEval.parseAIResponseMessage(STRICT_REPLY);
+    }
+
+    @Benchmark
+    public EvaluationResponse parseFencedReply() {
+        return gEval.parseAIResponseMessage(FENCED_REPLY);
+    }
+
+    @Benchmark
+    public GEvalMeasureResult measure() {
+        return gEval.measure(llmTestCase);
+    }
+}
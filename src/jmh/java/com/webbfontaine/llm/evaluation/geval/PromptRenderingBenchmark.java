@@ -0,0 +1,78 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import dev.langchain4j.model.input.PromptTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering the evaluation prompt with a {@link PromptTemplate} per call, as {@link GEval} used to,
+ * against rendering a {@link CompiledPromptTemplate} compiled once.
+ *
+ * <p>Run with {@code ./gradlew jmh}; the GC profiler reports the allocated bytes per render
+ * in {@code gc.alloc.rate.norm}. Both renderings are measured in the same run, so that their difference,
+ * rather than any recorded figure, shows the gain of the compiled template on the machine at hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptRenderingBenchmark {
+
+    private static final String EVALUATION_PARAMS = "Input, Actual Output, and Expected Output";
+
+    private static final List<String> EVALUATION_STEPS = List.of(
+        "Check whether the query 'actual output' contradicts any query in 'expected output'.",
+        "You should also heavily penalize if where condition is incorrect.",
+        "You should also heavily penalize if unnecessary joins are made"
+    );
+
+    private LLMTestCase llmTestCase;
+    private CompiledPromptTemplate compiledPromptTemplate;
+
+    @Setup
+    public void setUp() {
+        llmTestCase = new LLMTestCase(
+            "Get means of payment for receipt id 352 with all fields in the table",
+            "SELECT * FROM payment_means WHERE receipt = 352",
+            "select * from payment_means means where means.receipt = 352"
+        );
+        compiledPromptTemplate = CompiledPromptTemplate.compile(
+            Templates.GENERATE_EVALUATION_RESULTS,
+            Map.of(
+                "parameters", EVALUATION_PARAMS,
+                "evaluation_steps", GEval.numberEvaluationSteps(EVALUATION_STEPS)
+            ),
+            "text"
+        );
+    }
+
+    @Benchmark
+    public String promptTemplatePerCall() {
+        return new PromptTemplate(Templates.GENERATE_EVALUATION_RESULTS).apply(
+            Map.of(
+                "parameters", EVALUATION_PARAMS,
+                "evaluation_steps", GEval.numberEvaluationSteps(EVALUATION_STEPS),
+                "text", llmTestCase.generateText()
+            )
+        ).text();
+    }
+
+    @Benchmark
+    public String compiledPromptTemplate() {
+        return compiledPromptTemplate.render(llmTestCase.generateText());
+    }
+}
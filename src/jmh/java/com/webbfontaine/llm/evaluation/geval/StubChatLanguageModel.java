@@ -0,0 +1,31 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.List;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+/**
+ * A zero-latency {@link ChatLanguageModel} replying with a fixed message, so that benchmarks measure
+ * the overhead of {@link GEval} alone.
+ */
+final class StubChatLanguageModel implements ChatLanguageModel {
+
+    private final Response<AiMessage> response;
+
+    /**
+     * Constructs a {@code StubChatLanguageModel}.
+     *
+     * @param reply the reply returned for every call.
+     */
+    StubChatLanguageModel(final String reply) {
+        this.response = Response.from(AiMessage.from(reply));
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        return response;
+    }
+}
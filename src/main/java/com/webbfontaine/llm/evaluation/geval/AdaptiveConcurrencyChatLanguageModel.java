@@ -0,0 +1,371 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code AdaptiveConcurrencyChatLanguageModel} is a {@link ChatLanguageModel} decorator that limits the number of
+ * concurrent calls to the delegate model, and adapts the limit to the capacity of the provider with an
+ * additive-increase/multiplicative-decrease (AIMD) algorithm.
+ *
+ * <p>Calls beyond the limit wait for a running call to complete. While calls succeed in time and the limit is in use,
+ * the limit grows by one per round of calls; it grows by one per call until the first overload, so that it quickly
+ * reaches the capacity of the provider. On an overload, that is a rate limit error, a timeout, or a call slower than
+ * the latency threshold, the limit is multiplied by the backoff ratio. Calls started before the last decrease do not
+ * decrease it again, so that a burst of failures counts as a single overload.
+ *
+ * <p>The limit applies to every call made through this model, so a batch evaluation should allow at least
+ * {@code maxLimit} evaluations in flight, and leave it to this model to decide how many actually reach the provider.
+ *
+ * <p>Waiting calls park on a {@link ReentrantLock} condition rather than a monitor, so that they do not pin
+ * the carrier thread when running on virtual threads.
+ *
+ * <p>Usually created via {@link GEvalLlmParams#withAdaptiveConcurrency(int)}. This class is thread-safe.
+ */
+@Slf4j
+public final class AdaptiveConcurrencyChatLanguageModel implements ChatLanguageModel {
+
+    private static final Set<Integer> OVERLOAD_STATUS_CODES = Set.of(429, 503);
+    private static final List<String> STATUS_CODE_ACCESSORS = List.of("statusCode", "code");
+
+    private final ChatLanguageModel delegate;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final Predicate<Throwable> overload;
+    private final LongAdder overloads = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition belowLimit = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private boolean slowStart = true;
+    private long lastDecreaseNanos;
+
+    /**
+     * Returns a builder instance to create an {@code AdaptiveConcurrencyChatLanguageModel} object.
+     *
+     * @return an {@link AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+     */
+    public static AdaptiveConcurrencyChatLanguageModelBuilder builder() {
+        return new AdaptiveConcurrencyChatLanguageModelBuilder();
+    }
+
+    /**
+     * Constructs an AdaptiveConcurrencyChatLanguageModel object with the specified parameters.
+     *
+     * @param delegate         the model to limit.
+     * @param initialLimit     the initial number of concurrent calls.
+     * @param minLimit         the minimum number of concurrent calls.
+     * @param maxLimit         the maximum number of concurrent calls.
+     * @param backoffRatio     the factor applied to the limit on an overload, between 0 and 1.
+     * @param latencyThreshold the latency above which a call counts as an overload; may be null.
+     * @param overload         the classifier deciding which failures are overloads.
+     * @throws IllegalArgumentException if {@code delegate} or {@code overload} is null, {@code minLimit} is not positive,
+     *                                  {@code initialLimit} is not between {@code minLimit} and {@code maxLimit},
+     *                                  {@code backoffRatio} is not strictly between 0 and 1, or
+     *                                  {@code latencyThreshold} is not positive.
+     */
+    private AdaptiveConcurrencyChatLanguageModel(
+        final ChatLanguageModel delegate,
+        final int initialLimit,
+        final int minLimit,
+        final int maxLimit,
+        final double backoffRatio,
+        final Duration latencyThreshold,
+        final Predicate<Throwable> overload
+    ) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("The delegate cannot be null.");
+        }
+
+        if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= initialLimit <= maxLimit.");
+        }
+
+        if (!(backoffRatio > 0 && backoffRatio < 1.0)) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1.");
+        }
+
+        if (latencyThreshold != null && (latencyThreshold.isNegative() || latencyThreshold.isZero())) {
+            throw new IllegalArgumentException("Latency threshold must be positive.");
+        }
+
+        if (overload == null) {
+            throw new IllegalArgumentException("Overload classifier cannot be null.");
+        }
+
+        this.delegate = delegate;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold == null ? Long.MAX_VALUE : latencyThreshold.toNanos();
+        this.overload = overload;
+        this.limit = initialLimit;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        final long startNanos = acquire();
+        boolean succeeded = false;
+        boolean overloaded = false;
+        try {
+            final var response = delegate.generate(messages);
+            succeeded = true;
+            overloaded = System.nanoTime() - startNanos > latencyThresholdNanos;
+            return response;
+        } catch (RuntimeException e) {
+            overloaded = overload.test(e);
+            throw e;
+        } finally {
+            release(startNanos, succeeded, overloaded);
+        }
+    }
+
+    /**
+     * Waits until fewer calls than the limit are running, then counts the call as running.
+     *
+     * @return the {@link System#nanoTime()} at which the call starts.
+     * @throws IllegalStateException if the calling thread is interrupted while waiting.
+     */
+    private long acquire() {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                belowLimit.await();
+            }
+            inFlight++;
+            return System.nanoTime();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the model concurrency limit", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts the call as completed and adapts the limit to its outcome.
+     *
+     * @param startNanos the {@link System#nanoTime()} at which the call started.
+     * @param succeeded  whether the call succeeded.
+     * @param overloaded whether the call failed or took long enough to signal an overload.
+     */
+    private void release(final long startNanos, final boolean succeeded, final boolean overloaded) {
+        lock.lock();
+        try {
+            final boolean limitInUse = inFlight * 2 >= limit;
+            inFlight--;
+
+            if (overloaded) {
+                overloads.increment();
+                if (startNanos - lastDecreaseNanos >= 0) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    slowStart = false;
+                    lastDecreaseNanos = System.nanoTime();
+                    log.debug("Model overloaded, decreasing concurrency limit to {}", (int) limit);
+                }
+            } else if (succeeded && limitInUse) {
+                limit = Math.min(maxLimit, limit + (slowStart ? 1.0 : 1.0 / limit));
+            }
+            belowLimit.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current number of concurrent calls allowed.
+     *
+     * @return the concurrency limit.
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls currently running.
+     *
+     * @return the in-flight count.
+     */
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls that signaled an overload, whether or not they decreased the limit.
+     *
+     * @return the overload count.
+     */
+    public long overloadCount() {
+        return overloads.sum();
+    }
+
+    /**
+     * Decides whether a failure signals an overloaded provider, anywhere in its cause chain: a timeout or rate limit
+     * exception, recognized by its type, or an HTTP exception with a {@code 429} or {@code 503} status code.
+     * Messages are not inspected, since they may quote any text, such as a prompt containing {@code 429}.
+     *
+     * @param failure the failure of a call.
+     * @return {@code true} if the failure is an overload.
+     */
+    static boolean isOverload(final Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            final var typeName = cause.getClass().getSimpleName();
+            if (cause instanceof TimeoutException || cause instanceof InterruptedIOException
+                || typeName.contains("Timeout") || typeName.contains("RateLimit")
+                || OVERLOAD_STATUS_CODES.contains(statusCode(cause))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the HTTP status code of a failure through a public {@code statusCode()} or {@code code()} accessor,
+     * as exposed by the HTTP exceptions of the model providers.
+     *
+     * @param failure the failure of a call.
+     * @return the status code, or {@code -1} if the failure exposes none.
+     */
+    private static int statusCode(final Throwable failure) {
+        for (final var accessor : STATUS_CODE_ACCESSORS) {
+            try {
+                final var method = failure.getClass().getMethod(accessor);
+                if (method.getReturnType() == int.class) {
+                    return (int) method.invoke(failure);
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.trace("No {}() status accessor on {}", accessor, failure.getClass().getName());
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builder class for creating instances of {@code AdaptiveConcurrencyChatLanguageModel}.
+     */
+    public static final class AdaptiveConcurrencyChatLanguageModelBuilder {
+        private ChatLanguageModel delegate;
+        private int initialLimit = 4;
+        private int minLimit = 1;
+        private int maxLimit = 64;
+        private double backoffRatio = 0.5;
+        private Duration latencyThreshold;
+        private Predicate<Throwable> overload = AdaptiveConcurrencyChatLanguageModel::isOverload;
+
+        /**
+         * Builds and returns an {@code AdaptiveConcurrencyChatLanguageModel} instance.
+         *
+         * @return a new {@link AdaptiveConcurrencyChatLanguageModel} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModel build() {
+            return new AdaptiveConcurrencyChatLanguageModel(
+                delegate, initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold, overload
+            );
+        }
+
+        /**
+         * Sets the model to limit.
+         *
+         * @param delegate the delegate model to set.
+         * @return the current {@code AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModelBuilder delegate(final ChatLanguageModel delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the initial number of concurrent calls.
+         *
+         * @param initialLimit the initial limit; defaults to 4.
+         * @return the current {@code AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModelBuilder initialLimit(final int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of concurrent calls, kept however overloaded the provider is.
+         *
+         * @param minLimit the minimum limit; defaults to 1.
+         * @return the current {@code AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModelBuilder minLimit(final int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent calls.
+         *
+         * @param maxLimit the maximum limit; defaults to 64.
+         * @return the current {@code AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModelBuilder maxLimit(final int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets the factor applied to the limit on an overload.
+         *
+         * @param backoffRatio the backoff ratio, strictly between 0 and 1; defaults to 0.5.
+         * @return the current {@code AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModelBuilder backoffRatio(final double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Sets the latency above which a successful call counts as an overload, as providers often slow down
+         * before they reject calls.
+         *
+         * @param latencyThreshold the latency threshold; {@code null}, the default, ignores latency.
+         * @return the current {@code AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModelBuilder latencyThreshold(final Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the classifier deciding which failures signal an overloaded provider. Other failures leave
+         * the limit unchanged.
+         *
+         * @param overload the predicate returning {@code true} for overloads; defaults to rate limit errors and timeouts.
+         * @return the current {@code AdaptiveConcurrencyChatLanguageModelBuilder} instance.
+         */
+        public AdaptiveConcurrencyChatLanguageModelBuilder overloadOn(final Predicate<Throwable> overload) {
+            this.overload = overload;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * {@code CompiledPromptTemplate} is a prompt template whose fixed variables have been substituted
+ * once, leaving a single variable slot to be filled per rendering.
+ *
+ * <p>Compilation splits the template into a static prefix and suffix around the slot, so that
+ * rendering is a single sized string concatenation instead of a full template pass.
+ *
+ * <p>Variables use the {@code {{name}}} syntax of langchain4j's {@code PromptTemplate}. Double braces
+ * that do not enclose a variable name, such as the JSON example in {@link Templates}, are kept as is.
+ */
+final class CompiledPromptTemplate {
+
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([A-Za-z_][A-Za-z0-9_]*)}}");
+
+    private final String prefix;
+    private final String suffix;
+
+    /**
+     * Constructs a {@code CompiledPromptTemplate} from its static parts.
+     *
+     * @param prefix the text preceding the variable slot.
+     * @param suffix the text following the variable slot.
+     */
+    private CompiledPromptTemplate(final String prefix, final String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    /**
+     * Compiles the given template by substituting all fixed variables and locating the variable slot.
+     *
+     * @param template  the template text.
+     * @param variables the values of the fixed variables.
+     * @param slot      the name of the variable left to be filled on rendering.
+     * @return a new {@code CompiledPromptTemplate}.
+     * @throws IllegalArgumentException if a template variable has no value, or if {@code slot}
+     *                                  does not appear exactly once in the template.
+     */
+    static CompiledPromptTemplate compile(final String template, final Map<String, String> variables, final String slot) {
+        final var matcher = VARIABLE_PATTERN.matcher(template);
+        final var prefix = new StringBuilder(template.length());
+        final var suffix = new StringBuilder(template.length());
+        var current = prefix;
+        var slotFound = false;
+        while (matcher.find()) {
+            final var variable = matcher.group(1);
+            if (variable.equals(slot)) {
+                if (slotFound) {
+                    throw new IllegalArgumentException("Template variable " + slot + " must appear only once.");
+                }
+                matcher.appendReplacement(current, "");
+                current = suffix;
+                slotFound = true;
+                continue;
+            }
+
+            final var value = variables.get(variable);
+            if (value == null) {
+                throw new IllegalArgumentException("Value for the template variable " + variable + " is missing.");
+            }
+            matcher.appendReplacement(current, "");
+            current.append(value);
+        }
+        matcher.appendTail(current);
+
+        if (!slotFound) {
+            throw new IllegalArgumentException("Template variable " + slot + " is missing from the template.");
+        }
+        return new CompiledPromptTemplate(prefix.toString(), suffix.toString());
+    }
+
+    /**
+     * Renders the prompt with the given value in the variable slot.
+     *
+     * @param value the value of the slot variable.
+     * @return the rendered prompt text.
+     */
+    String render(final String value) {
+        return prefix + value + suffix;
+    }
+}
@@ -0,0 +1,385 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ObjectUtils;
+
+/**
+ * {@code CompositeGEval} evaluates a test case against several {@link GEval} metrics with a single judge call.
+ *
+ * <p>The pre-judge stages and cache of every metric are consulted first. The evaluation steps of the remaining
+ * metrics are then merged into one prompt, so that the input, actual output and expected output are sent once
+ * instead of once per metric. The merged prompt is sent to the chat language model of this composite, set with
+ * {@link CompositeGEvalBuilder#withGEvalLlmParams(GEvalLlmParams)}, and not to the judge model of each metric.
+ * The judge replies with one score and reason per metric, which are turned into individual
+ * {@link GEvalMeasureResult}s using the threshold of each metric. Metrics missing from the reply, or left alone
+ * after the lookups, are judged on their own by their own judge model; so are all the merged metrics when the
+ * merged call fails after its retries, while the pre-judged and cached results are kept.
+ *
+ * <p>The tokens of the merged call are split evenly among the metrics answered by the reply, or among all merged
+ * metrics when the call fails or answers none of them, and added to their {@link GEval#tokenUsage()}. The render,
+ * model call and parse phases of the merged call, and the measure phase, are reported to the metrics of every
+ * merged metric. Merged judgements are single samples of a shared prompt, so they are not cached.
+ *
+ * <p>Metrics sampling the judge several times or escalating through a {@link JudgeCascade} cannot be merged
+ * into a single call, and are rejected.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final CompositeGEval compositeGEval = CompositeGEval.builder()
+ *     .metrics(List.of(correctness, joins, whereClauses, aliasing))
+ *     .withGEvalLlmParams(new GEvalLlmParams(chatLanguageModel, objectMapper))
+ *     .build();
+ *
+ * final Map&lt;String, GEvalMeasureResult&gt; results = compositeGEval.measure(llmTestCase);
+ * System.out.println("Correctness: " + results.get("Correctness").score());
+ * </code></pre>
+ */
+@Slf4j
+public class CompositeGEval {
+
+    private static final String EVALUATION_PARAMS = "Input, Actual Output, and Expected Output";
+
+    private final List<GEval> metrics;
+    private final ChatLanguageModel chatLanguageModel;
+    private final ObjectMapper objectMapper;
+    private final RetryPolicy retryPolicy;
+    private final Map<BitSet, CompiledPromptTemplate> evaluationPrompts = new ConcurrentHashMap<>();
+    private final LenientEvaluationResponseParser lenientParser;
+
+    /**
+     * Returns a builder instance to create a {@code CompositeGEval} object.
+     *
+     * @return a {@link CompositeGEvalBuilder} instance.
+     */
+    public static CompositeGEvalBuilder builder() {
+        return new CompositeGEvalBuilder();
+    }
+
+    /**
+     * Constructs a CompositeGEval object with the specified parameters.
+     *
+     * @param metrics           the metrics to evaluate together.
+     * @param chatLanguageModel the chat language model used for evaluation.
+     * @param objectMapper      the JSON object mapper for parsing AI responses.
+     * @param retryPolicy       the optional policy retrying failed judge calls; may be null.
+     * @throws IllegalArgumentException if {@code metrics} is null or empty, metric names are not unique,
+     *                                  or a metric samples the judge several times or has a judge cascade.
+     */
+    private CompositeGEval(
+        final List<GEval> metrics,
+        final ChatLanguageModel chatLanguageModel,
+        final ObjectMapper objectMapper,
+        final RetryPolicy retryPolicy
+    ) {
+        if (ObjectUtils.isEmpty(metrics)) {
+            throw new IllegalArgumentException("Metrics cannot be null or empty.");
+        }
+
+        final var names = new HashSet<String>();
+        for (final var metric : metrics) {
+            if (!names.add(metric.name())) {
+                throw new IllegalArgumentException("Metric names must be unique, found duplicate " + metric.name() + ".");
+            }
+            if (!metric.judgesOnce()) {
+                throw new IllegalArgumentException(
+                    "Metric " + metric.name() + " samples the judge several times or has a judge cascade, and cannot be merged.");
+            }
+        }
+
+        this.metrics = List.copyOf(metrics);
+        this.chatLanguageModel = chatLanguageModel;
+        this.objectMapper = objectMapper;
+        this.retryPolicy = retryPolicy;
+        this.lenientParser = new LenientEvaluationResponseParser(objectMapper);
+    }
+
+    /**
+     * Measures the performance of a test case against all metrics, with a single judge call for the metrics
+     * neither pre-judged nor cached.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @return the {@link GEvalMeasureResult} of every metric, keyed by metric name, in metric order.
+     * @throws EvaluationMessageParsingRuntimeException if a metric left to be judged on its own cannot be evaluated.
+     */
+    public Map<String, GEvalMeasureResult> measure(final LLMTestCase llmTestCase) {
+        log.debug("Measuring test case - {} via {} metrics", llmTestCase, metrics.size());
+
+        final long startNanos = System.nanoTime();
+        final var results = new GEvalMeasureResult[metrics.size()];
+        final var pending = new BitSet(metrics.size());
+        for (int i = 0; i < metrics.size(); i++) {
+            results[i] = metrics.get(i).preJudgeOrCached(llmTestCase);
+            if (results[i] == null) {
+                pending.set(i);
+            } else {
+                metrics.get(i).recordMeasure(startNanos, true);
+            }
+        }
+
+        if (pending.cardinality() > 1) {
+            measureMerged(llmTestCase, pending, results, startNanos);
+        }
+
+        final Map<String, GEvalMeasureResult> namedResults = new LinkedHashMap<>();
+        for (int i = 0; i < metrics.size(); i++) {
+            final var metric = metrics.get(i);
+            if (results[i] == null) {
+                log.debug("Metric - {} not answered by a composite reply, measuring it on its own", metric.name());
+                results[i] = metric.measureJudged(llmTestCase);
+            }
+            namedResults.put(metric.name(), results[i]);
+        }
+
+        log.debug("Successfully measured test case - {} via {} metrics, results - {}", llmTestCase, metrics.size(), namedResults);
+        return namedResults;
+    }
+
+    /**
+     * Measures the pending metrics with a single judge call, setting the results of the metrics answered by the reply.
+     * A failed call leaves every result unset, so that the pending metrics are judged on their own.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @param pending     the indexes of the metrics to merge.
+     * @param results     the results of the metrics, by metric index.
+     * @param startNanos  the start of the measure, as given by {@link System#nanoTime()}.
+     */
+    private void measureMerged(
+        final LLMTestCase llmTestCase,
+        final BitSet pending,
+        final GEvalMeasureResult[] results,
+        final long startNanos
+    ) {
+        final var evaluationPrompt = evaluationPrompts.computeIfAbsent(pending, this::compileEvaluationPrompt);
+        final var prompt = timed(GEvalPhase.RENDER, pending, () -> evaluationPrompt.render(llmTestCase.generateText()));
+        final var replyTokenUsage = new TokenUsageCounter();
+        final JsonNode reply;
+        try {
+            reply = retryPolicy == null
+                ? generateReply(prompt, pending, replyTokenUsage)
+                : retryPolicy.execute(() -> generateReply(prompt, pending, replyTokenUsage), "composite of " + pending.cardinality() + " metrics");
+        } catch (RuntimeException e) {
+            log.warn("Composite judge call for {} metrics failed, measuring them on their own", pending.cardinality(), e);
+            recordTokenUsage(pending, replyTokenUsage.sum());
+            return;
+        }
+
+        final var evaluationResponses = new EvaluationResponse[metrics.size()];
+        int answered = 0;
+        for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1)) {
+            evaluationResponses[i] = LenientEvaluationResponseParser.toEvaluationResponse(reply.get(metrics.get(i).name()));
+            if (evaluationResponses[i] != null) {
+                answered++;
+            }
+        }
+
+        final var replyUsage = replyTokenUsage.sum();
+        if (answered == 0) {
+            recordTokenUsage(pending, replyUsage);
+            return;
+        }
+
+        int share = 0;
+        for (int i = pending.nextSetBit(0); i >= 0; i = pending.nextSetBit(i + 1)) {
+            final var evaluationResponse = evaluationResponses[i];
+            if (evaluationResponse == null) {
+                continue;
+            }
+
+            final var metric = metrics.get(i);
+            final var metricTokenUsage = replyUsage.share(share++, answered);
+            metric.recordTokenUsage(metricTokenUsage);
+            final double score = evaluationResponse.score() / 10.0;
+            results[i] = new GEvalMeasureResult(score >= metric.threshold(), score, evaluationResponse.reason(), 0.0, 1, metricTokenUsage);
+            metric.recordMeasure(startNanos, true);
+        }
+    }
+
+    /**
+     * Splits the tokens of a merged call that failed or answered none of the merged metrics evenly among them,
+     * adding them to their {@link GEval#tokenUsage()}.
+     *
+     * @param merged     the indexes of the merged metrics.
+     * @param tokenUsage the tokens consumed by the merged call, including retries.
+     */
+    private void recordTokenUsage(final BitSet merged, final EvaluationTokenUsage tokenUsage) {
+        final int count = merged.cardinality();
+        int share = 0;
+        for (int i = merged.nextSetBit(0); i >= 0; i = merged.nextSetBit(i + 1)) {
+            metrics.get(i).recordTokenUsage(tokenUsage.share(share++, count));
+        }
+    }
+
+    /**
+     * Calls the judge model with the prompt and parses its reply into a JSON object.
+     *
+     * @param prompt          the evaluation prompt.
+     * @param merged          the indexes of the merged metrics, to which the phases of the call are reported.
+     * @param replyTokenUsage the counter of the tokens consumed by the reply, including retries.
+     * @return the JSON object holding one score and reason per metric.
+     * @throws EvaluationMessageParsingRuntimeException if the reply cannot be parsed.
+     */
+    private JsonNode generateReply(final String prompt, final BitSet merged, final TokenUsageCounter replyTokenUsage) {
+        final var aiMessageResponse = timed(
+            GEvalPhase.MODEL_CALL,
+            merged,
+            () -> chatLanguageModel.generate(SystemMessage.systemMessage(prompt))
+        );
+        replyTokenUsage.add(EvaluationTokenUsage.from(aiMessageResponse.tokenUsage()));
+        return timed(GEvalPhase.PARSE, merged, () -> parseAIResponseMessage(aiMessageResponse.content().text()));
+    }
+
+    /**
+     * Runs the action, reporting its duration and outcome as the given phase to the metrics of every merged metric.
+     *
+     * @param phase  the phase of the action.
+     * @param merged the indexes of the merged metrics.
+     * @param action the action to run.
+     * @param <T>    the result type of the action.
+     * @return the result of the action.
+     */
+    private <T> T timed(final GEvalPhase phase, final BitSet merged, final Supplier<T> action) {
+        final long startNanos = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            final T result = action.get();
+            succeeded = true;
+            return result;
+        } finally {
+            final long durationNanos = System.nanoTime() - startNanos;
+            for (int i = merged.nextSetBit(0); i >= 0; i = merged.nextSetBit(i + 1)) {
+                metrics.get(i).recordPhase(phase, durationNanos, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Parses the AI response message into a JSON object, recovering non-strict replies leniently.
+     *
+     * @param message the response message in JSON format.
+     * @return the JSON object.
+     * @throws EvaluationMessageParsingRuntimeException if the message holds no JSON object.
+     */
+    private JsonNode parseAIResponseMessage(final String message) {
+        JsonNode node = null;
+        Exception failure = null;
+        try {
+            node = objectMapper.readTree(message);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            failure = e;
+        }
+
+        if (node != null && node.isObject()) {
+            return node;
+        }
+
+        final var recoveredNode = lenientParser.readFirst(message, '{', '}', JsonNode::isObject);
+        if (recoveredNode == null) {
+            throw new EvaluationMessageParsingRuntimeException(message, failure);
+        }
+        return recoveredNode;
+    }
+
+    /**
+     * Compiles the evaluation prompt merging the given metrics. Prompts are kept per set of metrics, of which
+     * there are few in practice, since most test cases leave the same metrics to the judge.
+     *
+     * @param merged the indexes of the metrics to merge.
+     * @return the {@link CompiledPromptTemplate} of the merged metrics.
+     */
+    private CompiledPromptTemplate compileEvaluationPrompt(final BitSet merged) {
+        return CompiledPromptTemplate.compile(
+            Templates.GENERATE_MULTI_METRIC_EVALUATION_RESULTS,
+            Map.of(
+                "parameters", EVALUATION_PARAMS,
+                "metrics", describeMetrics(merged)
+            ),
+            "text"
+        );
+    }
+
+    /**
+     * Describes the given metrics with their names and numbered evaluation steps.
+     *
+     * @param merged the indexes of the metrics to describe.
+     * @return a formatted string of the metrics.
+     */
+    private String describeMetrics(final BitSet merged) {
+        final var stringBuilder = new StringBuilder();
+        for (int i = merged.nextSetBit(0); i >= 0; i = merged.nextSetBit(i + 1)) {
+            final var metric = metrics.get(i);
+            stringBuilder.append("Metric \"").append(metric.name()).append("\":\n")
+                .append(metric.numberEvaluationSteps())
+                .append("\n");
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Builder class for creating instances of {@code CompositeGEval}.
+     */
+    public static final class CompositeGEvalBuilder {
+        private List<GEval> metrics;
+        private GEvalLlmParams gEvalLlmParams;
+        private RetryPolicy retryPolicy;
+
+        /**
+         * Builds and returns a {@code CompositeGEval} instance.
+         *
+         * @return a new {@link CompositeGEval} instance.
+         * @throws IllegalArgumentException if {@code gEvalLlmParams} is null, or a metric cannot be merged.
+         */
+        public CompositeGEval build() {
+            if (gEvalLlmParams == null) {
+                throw new IllegalArgumentException("gEvalLlmParams cannot be null");
+            }
+            return new CompositeGEval(metrics, gEvalLlmParams.chatLanguageModel(), gEvalLlmParams.objectMapper(), retryPolicy);
+        }
+
+        /**
+         * Sets the metrics to evaluate together. Their names must be unique.
+         *
+         * @param metrics the list of metrics to set.
+         * @return the current {@code CompositeGEvalBuilder} instance.
+         */
+        public CompositeGEvalBuilder metrics(final List<GEval> metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the {@code GEvalLlmParams} containing the chat language model and object mapper. The chat language
+         * model judges the merged metrics, in place of the judge model of each metric.
+         *
+         * @param gEvalLlmParams the parameters to set.
+         * @return the current {@code CompositeGEvalBuilder} instance.
+         */
+        public CompositeGEvalBuilder withGEvalLlmParams(final GEvalLlmParams gEvalLlmParams) {
+            this.gEvalLlmParams = gEvalLlmParams;
+            return this;
+        }
+
+        /**
+         * Sets the policy retrying failed judge calls, including replies that cannot be parsed.
+         *
+         * @param retryPolicy the retry policy to set; {@code null} disables retries.
+         * @return the current {@code CompositeGEvalBuilder} instance.
+         */
+        public CompositeGEvalBuilder retryPolicy(final RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+    }
+}
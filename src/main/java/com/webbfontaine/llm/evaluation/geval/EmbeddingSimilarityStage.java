@@ -0,0 +1,244 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.CosineSimilarity;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code EmbeddingSimilarityStage} is a {@link PreJudgeStage} deciding clear-cut test cases from the cosine
+ * similarity between the embeddings of the actual and expected outputs, without calling the judge.
+ *
+ * <p>Test cases with a similarity above {@code passAbove} pass with a score of 1, test cases with a similarity
+ * below {@code failBelow} fail with a score of 0, and test cases in between are left to the judge. Both bounds
+ * depend on the embedding model and the task, and are best calibrated on a sample of test cases already scored
+ * by the judge, so that no case decided by this stage would have been scored otherwise.
+ *
+ * <p>Embeddings are kept in a bounded, least-recently-used cache, so that an expected output shared by many test
+ * cases is embedded once. If the embedding model fails, the test case is left to the judge.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final EmbeddingSimilarityStage similarityStage = EmbeddingSimilarityStage.builder()
+ *     .embeddingModel(embeddingModel)
+ *     .passAbove(0.97)
+ *     .failBelow(0.40)
+ *     .build();
+ * final GEval gEval = GEval.builder()
+ *     ...
+ *     .preJudgeStages(List.of(similarityStage))
+ *     .build();
+ * </code></pre>
+ *
+ * <p>This class is thread-safe.
+ */
+@Slf4j
+public final class EmbeddingSimilarityStage implements PreJudgeStage {
+
+    private static final String DESCRIPTION = "The actual output has a cosine similarity of %.3f to the expected output.";
+
+    private final EmbeddingModel embeddingModel;
+    private final double passAbove;
+    private final double failBelow;
+    private final int maxCachedEmbeddings;
+    private final Map<String, Embedding> embeddings;
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Returns a builder instance to create an {@code EmbeddingSimilarityStage} object.
+     *
+     * @return an {@link EmbeddingSimilarityStageBuilder} instance.
+     */
+    public static EmbeddingSimilarityStageBuilder builder() {
+        return new EmbeddingSimilarityStageBuilder();
+    }
+
+    /**
+     * Constructs an EmbeddingSimilarityStage object with the specified parameters.
+     *
+     * @param embeddingModel      the embedding model.
+     * @param passAbove           the similarity above which test cases pass.
+     * @param failBelow           the similarity below which test cases fail.
+     * @param maxCachedEmbeddings the maximum number of cached embeddings.
+     * @throws IllegalArgumentException if {@code embeddingModel} is null, the bounds are not between -1 and 1,
+     *                                  {@code failBelow} is greater than {@code passAbove}, or
+     *                                  {@code maxCachedEmbeddings} is not positive.
+     */
+    private EmbeddingSimilarityStage(
+        final EmbeddingModel embeddingModel,
+        final double passAbove,
+        final double failBelow,
+        final int maxCachedEmbeddings
+    ) {
+        if (embeddingModel == null) {
+            throw new IllegalArgumentException("Embedding model cannot be null.");
+        }
+
+        if (!(passAbove >= -1.0 && passAbove <= 1.0) || !(failBelow >= -1.0 && failBelow <= 1.0)) {
+            throw new IllegalArgumentException("Similarity bounds must be between -1 and 1.");
+        }
+
+        if (failBelow > passAbove) {
+            throw new IllegalArgumentException("The failBelow bound cannot be greater than the passAbove bound.");
+        }
+
+        if (maxCachedEmbeddings < 1) {
+            throw new IllegalArgumentException("Max cached embeddings must be positive.");
+        }
+
+        this.embeddingModel = embeddingModel;
+        this.passAbove = passAbove;
+        this.failBelow = failBelow;
+        this.maxCachedEmbeddings = maxCachedEmbeddings;
+        this.embeddings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Embedding> eldest) {
+                return size() > EmbeddingSimilarityStage.this.maxCachedEmbeddings;
+            }
+        };
+    }
+
+    @Override
+    public GEvalMeasureResult evaluate(final LLMTestCase llmTestCase, final double threshold) {
+        if (llmTestCase.actualOutput() == null || llmTestCase.expectedOutput() == null) {
+            return null;
+        }
+
+        final double similarity;
+        try {
+            similarity = CosineSimilarity.between(embed(llmTestCase.actualOutput()), embed(llmTestCase.expectedOutput()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to embed the outputs of test case - {}, leaving it to the judge", llmTestCase, e);
+            return null;
+        }
+
+        final boolean pass = similarity > passAbove;
+        if (!pass && similarity >= failBelow) {
+            log.debug("Cosine similarity {} of test case - {} is not clear-cut, leaving it to the judge", similarity, llmTestCase);
+            return null;
+        }
+
+        (pass ? passed : failed).increment();
+        return new GEvalMeasureResult(
+            pass, pass ? 1.0 : 0.0, String.format(Locale.ROOT, DESCRIPTION, similarity), 0.0, 0, EvaluationTokenUsage.NONE
+        );
+    }
+
+    /**
+     * Returns the embedding of the text, from the cache if present.
+     *
+     * @param text the text to embed.
+     * @return the embedding of the text.
+     */
+    private Embedding embed(final String text) {
+        Embedding embedding;
+        synchronized (embeddings) {
+            embedding = embeddings.get(text);
+        }
+        if (embedding != null) {
+            return embedding;
+        }
+
+        embedding = embeddingModel.embed(text).content();
+        synchronized (embeddings) {
+            embeddings.put(text, embedding);
+        }
+        return embedding;
+    }
+
+    /**
+     * Returns the number of test cases decided by this stage.
+     *
+     * @return the decided count.
+     */
+    public long decidedCount() {
+        return passed.sum() + failed.sum();
+    }
+
+    /**
+     * Returns the number of test cases passed by this stage.
+     *
+     * @return the passed count.
+     */
+    public long passedCount() {
+        return passed.sum();
+    }
+
+    /**
+     * Returns the number of test cases failed by this stage.
+     *
+     * @return the failed count.
+     */
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Builder class for creating instances of {@code EmbeddingSimilarityStage}.
+     */
+    public static final class EmbeddingSimilarityStageBuilder {
+        private EmbeddingModel embeddingModel;
+        private double passAbove = 1.0;
+        private double failBelow = -1.0;
+        private int maxCachedEmbeddings = 10_000;
+
+        /**
+         * Builds and returns an {@code EmbeddingSimilarityStage} instance.
+         *
+         * @return a new {@link EmbeddingSimilarityStage} instance.
+         */
+        public EmbeddingSimilarityStage build() {
+            return new EmbeddingSimilarityStage(embeddingModel, passAbove, failBelow, maxCachedEmbeddings);
+        }
+
+        /**
+         * Sets the model embedding the actual and expected outputs.
+         *
+         * @param embeddingModel the embedding model to set.
+         * @return the current {@code EmbeddingSimilarityStageBuilder} instance.
+         */
+        public EmbeddingSimilarityStageBuilder embeddingModel(final EmbeddingModel embeddingModel) {
+            this.embeddingModel = embeddingModel;
+            return this;
+        }
+
+        /**
+         * Sets the cosine similarity above which test cases pass without calling the judge.
+         *
+         * @param passAbove the pass bound; defaults to 1, which passes no test case.
+         * @return the current {@code EmbeddingSimilarityStageBuilder} instance.
+         */
+        public EmbeddingSimilarityStageBuilder passAbove(final double passAbove) {
+            this.passAbove = passAbove;
+            return this;
+        }
+
+        /**
+         * Sets the cosine similarity below which test cases fail without calling the judge.
+         *
+         * @param failBelow the fail bound; defaults to -1, which fails no test case.
+         * @return the current {@code EmbeddingSimilarityStageBuilder} instance.
+         */
+        public EmbeddingSimilarityStageBuilder failBelow(final double failBelow) {
+            this.failBelow = failBelow;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cached embeddings.
+         *
+         * @param maxCachedEmbeddings the maximum cache size; defaults to 10,000.
+         * @return the current {@code EmbeddingSimilarityStageBuilder} instance.
+         */
+        public EmbeddingSimilarityStageBuilder maxCachedEmbeddings(final int maxCachedEmbeddings) {
+            this.maxCachedEmbeddings = maxCachedEmbeddings;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code EvaluationCache} is the service provider interface for caches of evaluation results
+ * consulted by {@link GEval} before calling the judge model.
+ *
+ * <p>Implementations must be thread-safe, since a {@code GEval} instance may evaluate test cases concurrently.
+ *
+ * @see InMemoryEvaluationCache
+ * @see FileEvaluationCache
+ */
+public interface EvaluationCache {
+
+    /**
+     * Returns the cached result for the given key.
+     *
+     * @param key the cache key.
+     * @return the cached {@link GEvalMeasureResult}, or {@code null} if absent.
+     */
+    GEvalMeasureResult get(EvaluationCacheKey key);
+
+    /**
+     * Caches the result for the given key.
+     *
+     * @param key    the cache key.
+     * @param result the result to cache.
+     */
+    void put(EvaluationCacheKey key, GEvalMeasureResult result);
+
+    /**
+     * Notifies the cache of the current configuration of an evaluation, when a {@link GEval} using it is built.
+     *
+     * <p>Results cached for a previous configuration of the same evaluation name can never be hit again,
+     * so implementations may discard them. The default implementation does nothing.
+     *
+     * @param evaluationName    the name of the evaluation.
+     * @param configFingerprint the fingerprint of the evaluation configuration.
+     */
+    default void registerConfiguration(final String evaluationName, final long configFingerprint) {
+    }
+
+    /**
+     * Tells whether cached results outlive the JVM, in which case {@link GEval} requires an explicit judge model name,
+     * since the class name of a model does not tell apart the models it can call. The default implementation
+     * returns {@code false}.
+     *
+     * @return {@code true} if cached results are kept across runs.
+     */
+    default boolean persistent() {
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * Identifies a cached evaluation result.
+ *
+ * @param configFingerprint the fingerprint of the evaluation configuration: the {@link GEval} name,
+ *                          threshold, evaluation steps, prompt template and judge model name.
+ * @param textFingerprint   the fingerprint of the evaluated text, as produced by {@link LLMTestCase#generateText()}.
+ */
+public record EvaluationCacheKey(
+    long configFingerprint,
+    long textFingerprint
+) {
+}
@@ -0,0 +1,19 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * Represents the outcome of an evaluation run over a dataset.
+ *
+ * @param evaluated  the number of records evaluated successfully.
+ * @param passed     the number of evaluated records that passed.
+ * @param failed     the number of records that could not be read or evaluated.
+ * @param skipped    the number of records skipped because a resumed run had already evaluated them.
+ * @param tokenUsage the tokens consumed by the evaluated records.
+ */
+public record EvaluationRunSummary(
+    long evaluated,
+    long passed,
+    long failed,
+    long skipped,
+    EvaluationTokenUsage tokenUsage
+) {
+}
@@ -0,0 +1,41 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.List;
+
+/**
+ * {@code EvaluationStepsCache} is the service provider interface for caches of evaluation steps generated
+ * from criteria, consulted by {@link GEval.GEvalBuilder#criteria(String)} before calling the model.
+ *
+ * <p>Keys are fingerprints of the criteria, the step generation template and the model name, so that steps
+ * are generated again whenever any of them changes. Implementations must be thread-safe.
+ *
+ * @see FileEvaluationStepsCache
+ */
+public interface EvaluationStepsCache {
+
+    /**
+     * Returns the cached evaluation steps for the given key.
+     *
+     * @param criteriaFingerprint the fingerprint of the criteria, template and model name.
+     * @return the cached evaluation steps, or {@code null} if absent.
+     */
+    List<String> get(long criteriaFingerprint);
+
+    /**
+     * Caches the evaluation steps for the given key.
+     *
+     * @param criteriaFingerprint the fingerprint of the criteria, template and model name.
+     * @param evaluationSteps     the generated evaluation steps.
+     */
+    void put(long criteriaFingerprint, List<String> evaluationSteps);
+
+    /**
+     * Tells whether cached steps outlive the JVM, in which case {@link GEval} requires an explicit model name
+     * to generate steps. The default implementation returns {@code false}.
+     *
+     * @return {@code true} if cached steps are kept across runs.
+     */
+    default boolean persistent() {
+        return false;
+    }
+}
@@ -0,0 +1,130 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code EvaluationStepsGenerator} turns evaluation criteria into chain-of-thought evaluation steps with a single
+ * model call, as in the original G-Eval, memoizing them in an optional {@link EvaluationStepsCache}.
+ */
+@Slf4j
+final class EvaluationStepsGenerator {
+
+    private final ChatLanguageModel chatLanguageModel;
+    private final ObjectMapper objectMapper;
+    private final String modelName;
+    private final RetryPolicy retryPolicy;
+    private final EvaluationStepsCache cache;
+    private final CompiledPromptTemplate stepsPrompt;
+    private final LenientEvaluationResponseParser lenientParser;
+
+    /**
+     * Constructs an {@code EvaluationStepsGenerator}.
+     *
+     * @param chatLanguageModel the chat language model generating the steps.
+     * @param objectMapper      the JSON object mapper for parsing AI responses.
+     * @param modelName         the name identifying the model in cache keys.
+     * @param retryPolicy       the optional policy retrying failed model calls; may be null.
+     * @param cache             the optional cache of generated steps; may be null.
+     * @param parameters        the evaluated parameters, referenced by the generated steps.
+     */
+    EvaluationStepsGenerator(
+        final ChatLanguageModel chatLanguageModel,
+        final ObjectMapper objectMapper,
+        final String modelName,
+        final RetryPolicy retryPolicy,
+        final EvaluationStepsCache cache,
+        final String parameters
+    ) {
+        this.chatLanguageModel = chatLanguageModel;
+        this.objectMapper = objectMapper;
+        this.modelName = modelName;
+        this.retryPolicy = retryPolicy;
+        this.cache = cache;
+        this.stepsPrompt = CompiledPromptTemplate.compile(
+            Templates.GENERATE_EVALUATION_STEPS,
+            Map.of("parameters", parameters),
+            "criteria"
+        );
+        this.lenientParser = new LenientEvaluationResponseParser(objectMapper);
+    }
+
+    /**
+     * Returns the evaluation steps for the given criteria, from the cache if present, otherwise generated
+     * by the model and then cached.
+     *
+     * @param criteria the evaluation criteria.
+     * @return the evaluation steps.
+     * @throws IllegalArgumentException                 if {@code criteria} is blank.
+     * @throws EvaluationMessageParsingRuntimeException if the model reply holds no steps.
+     */
+    List<String> generate(final String criteria) {
+        if (criteria == null || criteria.isBlank()) {
+            throw new IllegalArgumentException("Criteria cannot be null or blank.");
+        }
+
+        final long criteriaFingerprint = Fingerprints.of(criteria, Templates.GENERATE_EVALUATION_STEPS, modelName);
+        if (cache != null) {
+            final var cachedSteps = cache.get(criteriaFingerprint);
+            if (cachedSteps != null) {
+                log.debug("Reusing cached evaluation steps for criteria - {}", criteria);
+                return cachedSteps;
+            }
+        }
+
+        log.debug("Generating evaluation steps for criteria - {}", criteria);
+        final var prompt = stepsPrompt.render(criteria);
+        final var evaluationSteps = retryPolicy == null
+            ? generateSteps(prompt)
+            : retryPolicy.execute(() -> generateSteps(prompt), "evaluation steps generation");
+
+        if (cache != null) {
+            cache.put(criteriaFingerprint, evaluationSteps);
+        }
+        log.debug("Successfully generated evaluation steps - {}", evaluationSteps);
+        return evaluationSteps;
+    }
+
+    /**
+     * Calls the model with the prompt and parses the steps of its reply.
+     *
+     * @param prompt the step generation prompt.
+     * @return the non-blank evaluation steps.
+     * @throws EvaluationMessageParsingRuntimeException if the reply holds no steps.
+     */
+    private List<String> generateSteps(final String prompt) {
+        final var message = chatLanguageModel.generate(SystemMessage.systemMessage(prompt)).content().text();
+
+        JsonNode node = null;
+        Exception failure = null;
+        try {
+            node = objectMapper.readTree(message);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            failure = e;
+        }
+        if (node == null || !node.path("steps").isArray()) {
+            node = lenientParser.readFirst(message, '{', '}', candidate -> candidate.path("steps").isArray());
+        }
+
+        final List<String> evaluationSteps = new ArrayList<>();
+        if (node != null) {
+            for (final var step : node.path("steps")) {
+                if (step.isTextual() && !step.textValue().isBlank()) {
+                    evaluationSteps.add(step.textValue().strip());
+                }
+            }
+        }
+        if (evaluationSteps.isEmpty()) {
+            throw new EvaluationMessageParsingRuntimeException(message, failure);
+        }
+        return List.copyOf(evaluationSteps);
+    }
+}
@@ -0,0 +1,92 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * Represents the number of tokens consumed by judge calls.
+ * <p>
+ * Counts are taken from the {@link TokenUsage} reported by the chat language model; models that report
+ * no usage are counted as zero.
+ *
+ * @param inputTokenCount  the number of prompt tokens.
+ * @param outputTokenCount the number of generated tokens.
+ */
+public record EvaluationTokenUsage(
+    long inputTokenCount,
+    long outputTokenCount
+) {
+
+    /**
+     * No token usage, as for results served from a cache.
+     */
+    public static final EvaluationTokenUsage NONE = new EvaluationTokenUsage(0, 0);
+
+    /**
+     * Returns the total number of tokens.
+     *
+     * @return the sum of input and output tokens.
+     */
+    public long totalTokenCount() {
+        return inputTokenCount + outputTokenCount;
+    }
+
+    /**
+     * Returns the sum of this usage and the given one.
+     *
+     * @param other the usage to add.
+     * @return the summed {@code EvaluationTokenUsage}.
+     */
+    public EvaluationTokenUsage plus(final EvaluationTokenUsage other) {
+        return new EvaluationTokenUsage(inputTokenCount + other.inputTokenCount, outputTokenCount + other.outputTokenCount);
+    }
+
+    /**
+     * Sums the token usage of the successful results of a batch.
+     *
+     * @param batchResults the results of a batch evaluation.
+     * @return the total {@code EvaluationTokenUsage} of the batch.
+     */
+    public static EvaluationTokenUsage sum(final Iterable<GEvalBatchResult> batchResults) {
+        long inputTokens = 0;
+        long outputTokens = 0;
+        for (final var batchResult : batchResults) {
+            if (batchResult.result() != null) {
+                inputTokens += batchResult.result().tokenUsage().inputTokenCount();
+                outputTokens += batchResult.result().tokenUsage().outputTokenCount();
+            }
+        }
+        return new EvaluationTokenUsage(inputTokens, outputTokens);
+    }
+
+    /**
+     * Returns the share of this usage attributed to one of several results produced by the same judge call.
+     *
+     * <p>Tokens are split evenly, the remainder going to the first shares, so that the shares sum to this usage.
+     *
+     * @param index the index of the share, from 0 to {@code parts - 1}.
+     * @param parts the number of shares.
+     * @return the share of this usage.
+     */
+    EvaluationTokenUsage share(final int index, final int parts) {
+        return new EvaluationTokenUsage(
+            inputTokenCount / parts + (index < inputTokenCount % parts ? 1 : 0),
+            outputTokenCount / parts + (index < outputTokenCount % parts ? 1 : 0)
+        );
+    }
+
+    /**
+     * Converts the token usage reported by a chat language model.
+     *
+     * @param tokenUsage the reported usage, possibly null or with null counts.
+     * @return the {@code EvaluationTokenUsage}, counting missing values as zero.
+     */
+    static EvaluationTokenUsage from(final TokenUsage tokenUsage) {
+        if (tokenUsage == null) {
+            return NONE;
+        }
+        return new EvaluationTokenUsage(
+            tokenUsage.inputTokenCount() == null ? 0 : tokenUsage.inputTokenCount(),
+            tokenUsage.outputTokenCount() == null ? 0 : tokenUsage.outputTokenCount()
+        );
+    }
+}
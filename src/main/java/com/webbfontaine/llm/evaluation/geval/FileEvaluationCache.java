@@ -0,0 +1,664 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code FileEvaluationCache} is an {@link EvaluationCache} persisted in a directory, so that evaluation
+ * results survive JVM restarts.
+ *
+ * <p>The cache is made of:
+ * <ul>
+ *   <li>an append-only log of results, each record protected by a CRC32 checksum;</li>
+ *   <li>a memory-mapped, open-addressing hash index from {@link EvaluationCacheKey} to log offset;</li>
+ *   <li>a small file recording the current configuration fingerprint of every evaluation name.</li>
+ * </ul>
+ *
+ * <p>The index is trusted on {@link #open(Path, ObjectMapper)} only if it was written by a clean {@link #close()}
+ * and matches the log; otherwise it is rebuilt by scanning the log, truncating any torn record at its end.
+ *
+ * <p>When a {@link GEval} is built with changed evaluation steps, template or model, the results of the previous
+ * configuration of the same evaluation name are invalidated, and dropped by the next {@link #compact()}.
+ *
+ * <p>This class is thread-safe.
+ */
+@Slf4j
+public final class FileEvaluationCache implements EvaluationCache, Closeable {
+
+    private static final String LOG_FILE = "evaluations.log";
+    private static final String INDEX_FILE = "evaluations.idx";
+    private static final String CONFIGURATIONS_FILE = "configurations.bin";
+
+    private static final int RECORD_HEADER_SIZE = 24;
+    private static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+
+    private static final int INDEX_MAGIC = 0x47455649;
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 24;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 26;
+    private static final long DIRTY = -1L;
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final FileChannel indexChannel;
+    private final Map<Long, Long> currentConfigurations = new HashMap<>();
+    private final Set<Long> staleConfigurations = new HashSet<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private FileChannel logChannel;
+    private long logSize;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+
+    /**
+     * Constructs a {@code FileEvaluationCache} over already opened files.
+     *
+     * @param directory    the cache directory.
+     * @param objectMapper the JSON object mapper serializing results.
+     * @param logChannel   the channel of the result log.
+     * @param indexChannel the channel of the index.
+     */
+    private FileEvaluationCache(
+        final Path directory,
+        final ObjectMapper objectMapper,
+        final FileChannel logChannel,
+        final FileChannel indexChannel
+    ) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.logChannel = logChannel;
+        this.indexChannel = indexChannel;
+    }
+
+    /**
+     * Opens the cache stored in the given directory, creating it if needed.
+     *
+     * @param directory    the cache directory.
+     * @param objectMapper the JSON object mapper serializing results.
+     * @return the opened {@code FileEvaluationCache}.
+     * @throws IOException if the cache files cannot be read or created.
+     */
+    public static FileEvaluationCache open(final Path directory, final ObjectMapper objectMapper) throws IOException {
+        if (directory == null) {
+            throw new IllegalArgumentException("The directory cannot be null");
+        }
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("The objectMapper cannot be null");
+        }
+
+        Files.createDirectories(directory);
+        final var logChannel = FileChannel.open(
+            directory.resolve(LOG_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+        final var indexChannel = FileChannel.open(
+            directory.resolve(INDEX_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE
+        );
+
+        final var cache = new FileEvaluationCache(directory, objectMapper, logChannel, indexChannel);
+        try {
+            cache.load();
+        } catch (IOException | RuntimeException e) {
+            cache.closeChannels();
+            throw e;
+        }
+        return cache;
+    }
+
+    @Override
+    public synchronized GEvalMeasureResult get(final EvaluationCacheKey key) {
+        ensureOpen();
+        final long offset = staleConfigurations.contains(key.configFingerprint())
+            ? -1
+            : lookup(key.configFingerprint(), key.textFingerprint());
+        if (offset < 0) {
+            misses.increment();
+            return null;
+        }
+
+        try {
+            final var header = read(offset, RECORD_HEADER_SIZE);
+            final var payload = read(offset + RECORD_HEADER_SIZE, header.getInt(0));
+            final var result = objectMapper.readValue(payload.array(), GEvalMeasureResult.class);
+            hits.increment();
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read cached evaluation result from " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void put(final EvaluationCacheKey key, final GEvalMeasureResult result) {
+        ensureOpen();
+        try {
+            final var payload = objectMapper.writeValueAsBytes(result);
+            final var buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+            buffer.putInt(payload.length)
+                .putInt(0)
+                .putLong(key.configFingerprint())
+                .putLong(key.textFingerprint())
+                .put(payload);
+            buffer.putInt(4, checksum(buffer.array()));
+            buffer.flip();
+
+            final long offset = logSize;
+            write(logChannel, buffer, offset);
+            logSize += buffer.capacity();
+            insert(key.configFingerprint(), key.textFingerprint(), offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write evaluation result to " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void registerConfiguration(final String evaluationName, final long configFingerprint) {
+        ensureOpen();
+        final long nameFingerprint = Fingerprints.of(evaluationName);
+        final var previous = currentConfigurations.put(nameFingerprint, configFingerprint);
+        final boolean revived = staleConfigurations.remove(configFingerprint);
+        final boolean invalidated = previous != null && previous != configFingerprint && staleConfigurations.add(previous);
+        if (previous != null && previous == configFingerprint && !revived) {
+            return;
+        }
+
+        if (invalidated) {
+            log.info("Configuration of evaluation - {} changed, invalidating its cached results in - {}", evaluationName, directory);
+        }
+        try {
+            saveConfigurations();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save cache configurations to " + directory, e);
+        }
+    }
+
+    /**
+     * Rewrites the log with only the latest result of every key whose configuration is still current,
+     * then rebuilds the index.
+     *
+     * @throws IOException if the log cannot be rewritten.
+     */
+    public synchronized void compact() throws IOException {
+        ensureOpen();
+        final var keys = new long[size * 2];
+        final var records = new ByteBuffer[size];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            final int position = slotPosition(slot);
+            final long offset = index.getLong(position + 16) - 1;
+            if (offset < 0 || staleConfigurations.contains(index.getLong(position))) {
+                continue;
+            }
+
+            final var header = read(offset, RECORD_HEADER_SIZE);
+            records[count] = read(offset, RECORD_HEADER_SIZE + header.getInt(0));
+            keys[count * 2] = index.getLong(position);
+            keys[count * 2 + 1] = index.getLong(position + 8);
+            count++;
+        }
+
+        final var logPath = directory.resolve(LOG_FILE);
+        final var compactedPath = directory.resolve(LOG_FILE + ".compacting");
+        final var offsets = new long[count];
+        long compactedSize = 0;
+        try (var compacted = FileChannel.open(
+            compactedPath,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        )) {
+            for (int i = 0; i < count; i++) {
+                offsets[i] = compactedSize;
+                write(compacted, records[i], compactedSize);
+                compactedSize += records[i].capacity();
+            }
+            compacted.force(true);
+        }
+
+        logChannel.close();
+        try {
+            Files.move(compactedPath, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            logChannel = FileChannel.open(logPath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        log.info("Compacted evaluation cache - {} from {} to {} bytes", directory, logSize, compactedSize);
+        logSize = compactedSize;
+        staleConfigurations.clear();
+        saveConfigurations();
+        mapIndex(capacityFor(count));
+        for (int i = 0; i < count; i++) {
+            insert(keys[i * 2], keys[i * 2 + 1], offsets[i]);
+        }
+    }
+
+    /**
+     * Returns the number of cached results, including results of invalidated configurations not yet compacted.
+     *
+     * @return the current size of the cache.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached result.
+     *
+     * @return the hit count.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no cached result.
+     *
+     * @return the miss count.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Always {@code true}, since results are kept in the cache directory.
+     */
+    @Override
+    public boolean persistent() {
+        return true;
+    }
+
+    /**
+     * Flushes the log and the index to disk, marks the index as clean, and closes the cache.
+     *
+     * @throws IOException if the files cannot be flushed or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (index == null) {
+            return;
+        }
+
+        try {
+            logChannel.force(true);
+            writeIndexHeader(logSize);
+            index.force();
+        } finally {
+            index = null;
+            closeChannels();
+        }
+    }
+
+    /**
+     * Loads the configurations and the index, rebuilding the index from the log if it is not clean.
+     *
+     * @throws IOException if the cache files cannot be read.
+     */
+    private void load() throws IOException {
+        loadConfigurations();
+        logSize = logChannel.size();
+
+        if (!loadIndex()) {
+            log.info("Rebuilding evaluation cache index of - {}", directory);
+            mapIndex(INITIAL_CAPACITY);
+            rebuildIndex();
+        }
+        writeIndexHeader(DIRTY);
+        index.force();
+    }
+
+    /**
+     * Maps the existing index if it was cleanly closed and matches the log.
+     *
+     * @return {@code true} if the index could be used, {@code false} if it must be rebuilt.
+     * @throws IOException if the index cannot be read.
+     */
+    private boolean loadIndex() throws IOException {
+        if (indexChannel.size() < INDEX_HEADER_SIZE) {
+            return false;
+        }
+
+        final var header = read(indexChannel, 0, INDEX_HEADER_SIZE);
+        final int storedCapacity = header.getInt(8);
+        if (header.getInt(0) != INDEX_MAGIC
+            || header.getInt(4) != INDEX_VERSION
+            || header.getLong(16) != logSize
+            || Integer.bitCount(storedCapacity) != 1
+            || storedCapacity > MAX_CAPACITY
+            || indexChannel.size() != INDEX_HEADER_SIZE + (long) storedCapacity * SLOT_SIZE) {
+            return false;
+        }
+
+        capacity = storedCapacity;
+        size = header.getInt(12);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+        return true;
+    }
+
+    /**
+     * Rebuilds the index by scanning the log, truncating the log at the first torn or corrupted record.
+     *
+     * @throws IOException if the log cannot be read.
+     */
+    private void rebuildIndex() throws IOException {
+        long offset = 0;
+        while (offset + RECORD_HEADER_SIZE <= logSize) {
+            final var header = read(offset, RECORD_HEADER_SIZE);
+            final int payloadLength = header.getInt(0);
+            if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_SIZE || offset + RECORD_HEADER_SIZE + payloadLength > logSize) {
+                break;
+            }
+
+            final var record = read(offset, RECORD_HEADER_SIZE + payloadLength);
+            if (record.getInt(4) != checksum(record.array())) {
+                break;
+            }
+
+            insert(record.getLong(8), record.getLong(16), offset);
+            offset += RECORD_HEADER_SIZE + payloadLength;
+        }
+
+        if (offset < logSize) {
+            log.warn("Truncating evaluation cache log of - {} at corrupted record, offset {}", directory, offset);
+            logChannel.truncate(offset);
+            logSize = offset;
+        }
+    }
+
+    /**
+     * Maps a new, empty index with the given capacity, replacing the current one.
+     *
+     * @param newCapacity the number of slots, a power of two.
+     * @throws IOException if the index file cannot be mapped.
+     */
+    private void mapIndex(final int newCapacity) throws IOException {
+        final long length = INDEX_HEADER_SIZE + (long) newCapacity * SLOT_SIZE;
+        indexChannel.truncate(length);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        for (int position = INDEX_HEADER_SIZE; position < length; position += Long.BYTES) {
+            index.putLong(position, 0L);
+        }
+        capacity = newCapacity;
+        size = 0;
+        writeIndexHeader(DIRTY);
+    }
+
+    /**
+     * Writes the index header.
+     *
+     * @param indexedLogSize the log size covered by the index, or {@link #DIRTY} while the index is being modified.
+     */
+    private void writeIndexHeader(final long indexedLogSize) {
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, INDEX_VERSION);
+        index.putInt(8, capacity);
+        index.putInt(12, size);
+        index.putLong(16, indexedLogSize);
+        index.putLong(24, 0L);
+    }
+
+    /**
+     * Looks up the log offset of the given key.
+     *
+     * @param configFingerprint the configuration fingerprint of the key.
+     * @param textFingerprint   the text fingerprint of the key.
+     * @return the log offset of the latest record of the key, or {@code -1} if absent.
+     */
+    private long lookup(final long configFingerprint, final long textFingerprint) {
+        for (int slot = firstSlot(configFingerprint, textFingerprint); ; slot = (slot + 1) & (capacity - 1)) {
+            final int position = slotPosition(slot);
+            final long storedOffset = index.getLong(position + 16);
+            if (storedOffset == 0) {
+                return -1;
+            }
+            if (index.getLong(position) == configFingerprint && index.getLong(position + 8) == textFingerprint) {
+                return storedOffset - 1;
+            }
+        }
+    }
+
+    /**
+     * Records the log offset of the given key in the index, growing the index if it is half full.
+     *
+     * @param configFingerprint the configuration fingerprint of the key.
+     * @param textFingerprint   the text fingerprint of the key.
+     * @param offset            the log offset of the record.
+     * @throws IOException if the index must grow and cannot be remapped.
+     */
+    private void insert(final long configFingerprint, final long textFingerprint, final long offset) throws IOException {
+        if ((size + 1) * 2 > capacity) {
+            grow();
+        }
+
+        for (int slot = firstSlot(configFingerprint, textFingerprint); ; slot = (slot + 1) & (capacity - 1)) {
+            final int position = slotPosition(slot);
+            final long storedOffset = index.getLong(position + 16);
+            if (storedOffset == 0) {
+                index.putLong(position, configFingerprint);
+                index.putLong(position + 8, textFingerprint);
+                index.putLong(position + 16, offset + 1);
+                size++;
+                return;
+            }
+            if (index.getLong(position) == configFingerprint && index.getLong(position + 8) == textFingerprint) {
+                index.putLong(position + 16, offset + 1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Doubles the capacity of the index, re-inserting its entries.
+     *
+     * @throws IOException if the index cannot be remapped.
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Evaluation cache index of " + directory + " is full");
+        }
+
+        final var entries = new long[size * 3];
+        int count = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            final int position = slotPosition(slot);
+            final long storedOffset = index.getLong(position + 16);
+            if (storedOffset != 0) {
+                entries[count * 3] = index.getLong(position);
+                entries[count * 3 + 1] = index.getLong(position + 8);
+                entries[count * 3 + 2] = storedOffset - 1;
+                count++;
+            }
+        }
+
+        mapIndex(capacity * 2);
+        for (int i = 0; i < count; i++) {
+            insert(entries[i * 3], entries[i * 3 + 1], entries[i * 3 + 2]);
+        }
+    }
+
+    /**
+     * Returns the first slot to probe for the given key.
+     *
+     * @param configFingerprint the configuration fingerprint of the key.
+     * @param textFingerprint   the text fingerprint of the key.
+     * @return the slot number.
+     */
+    private int firstSlot(final long configFingerprint, final long textFingerprint) {
+        long hash = configFingerprint * 0x9e3779b97f4a7c15L ^ textFingerprint;
+        hash ^= hash >>> 32;
+        return (int) hash & (capacity - 1);
+    }
+
+    /**
+     * Returns the position of the given slot in the index.
+     *
+     * @param slot the slot number.
+     * @return the byte position of the slot.
+     */
+    private static int slotPosition(final int slot) {
+        return INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Returns the smallest index capacity keeping the given number of entries at most half full.
+     *
+     * @param entries the number of entries.
+     * @return the capacity, a power of two.
+     */
+    private static int capacityFor(final int entries) {
+        int result = INITIAL_CAPACITY;
+        while (result < entries * 2 && result < MAX_CAPACITY) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    /**
+     * Loads the current and stale configuration fingerprints.
+     *
+     * @throws IOException if the configurations file cannot be read.
+     */
+    private void loadConfigurations() throws IOException {
+        final var path = directory.resolve(CONFIGURATIONS_FILE);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try (var input = new DataInputStream(Files.newInputStream(path))) {
+            final int currentCount = input.readInt();
+            for (int i = 0; i < currentCount; i++) {
+                currentConfigurations.put(input.readLong(), input.readLong());
+            }
+            final int staleCount = input.readInt();
+            for (int i = 0; i < staleCount; i++) {
+                staleConfigurations.add(input.readLong());
+            }
+        }
+    }
+
+    /**
+     * Atomically replaces the configurations file with the current and stale configuration fingerprints.
+     *
+     * @throws IOException if the configurations file cannot be written.
+     */
+    private void saveConfigurations() throws IOException {
+        final var path = directory.resolve(CONFIGURATIONS_FILE);
+        final var temporaryPath = directory.resolve(CONFIGURATIONS_FILE + ".tmp");
+        try (var output = new DataOutputStream(Files.newOutputStream(temporaryPath))) {
+            output.writeInt(currentConfigurations.size());
+            for (final var entry : currentConfigurations.entrySet()) {
+                output.writeLong(entry.getKey());
+                output.writeLong(entry.getValue());
+            }
+            output.writeInt(staleConfigurations.size());
+            for (final var staleConfiguration : staleConfigurations) {
+                output.writeLong(staleConfiguration);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads {@code length} bytes of the log starting at {@code offset}.
+     *
+     * @param offset the log offset.
+     * @param length the number of bytes to read.
+     * @return a heap buffer holding the bytes, ready to be read.
+     * @throws IOException if the log cannot be read.
+     */
+    private ByteBuffer read(final long offset, final int length) throws IOException {
+        return read(logChannel, offset, length);
+    }
+
+    /**
+     * Reads {@code length} bytes of the given channel starting at {@code offset}.
+     *
+     * @param channel the channel to read from.
+     * @param offset  the position to read from.
+     * @param length  the number of bytes to read.
+     * @return a heap buffer holding the bytes, ready to be read.
+     * @throws IOException if the channel cannot be read or ends before {@code length} bytes.
+     */
+    private static ByteBuffer read(final FileChannel channel, final long offset, final int length) throws IOException {
+        final var buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at offset " + (offset + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Writes all remaining bytes of the buffer to the given channel at {@code offset}.
+     *
+     * @param channel the channel to write to.
+     * @param buffer  the bytes to write.
+     * @param offset  the position to write at.
+     * @throws IOException if the channel cannot be written.
+     */
+    private static void write(final FileChannel channel, final ByteBuffer buffer, final long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Computes the checksum of a log record, covering its key and payload.
+     *
+     * @param record the record bytes, including the header.
+     * @return the CRC32 checksum.
+     */
+    private static int checksum(final byte[] record) {
+        final var crc = new CRC32();
+        crc.update(record, 8, record.length - 8);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Fails if the cache has been closed.
+     *
+     * @throws IllegalStateException if the cache is closed.
+     */
+    private void ensureOpen() {
+        if (index == null) {
+            throw new IllegalStateException("Evaluation cache " + directory + " is closed");
+        }
+    }
+
+    /**
+     * Closes the log and index channels.
+     *
+     * @throws IOException if a channel cannot be closed.
+     */
+    private void closeChannels() throws IOException {
+        try {
+            logChannel.close();
+        } finally {
+            indexChannel.close();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@code FileEvaluationStepsCache} is an {@link EvaluationStepsCache} persisted in a single JSON file, so that
+ * evaluation steps generated from criteria survive JVM restarts.
+ *
+ * <p>The file maps hexadecimal criteria fingerprints to their evaluation steps. It is read once when opened,
+ * and atomically replaced on every {@link #put(long, List)}; step generation happens once per criteria and model,
+ * so writes are rare.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class FileEvaluationStepsCache implements EvaluationStepsCache {
+
+    private static final TypeReference<Map<String, List<String>>> ENTRIES_TYPE = new TypeReference<>() {
+    };
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final Map<String, List<String>> entries;
+
+    /**
+     * Constructs a {@code FileEvaluationStepsCache} over already loaded entries.
+     *
+     * @param file         the cache file.
+     * @param objectMapper the JSON object mapper serializing entries.
+     * @param entries      the loaded entries.
+     */
+    private FileEvaluationStepsCache(final Path file, final ObjectMapper objectMapper, final Map<String, List<String>> entries) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.entries = new ConcurrentHashMap<>(entries);
+    }
+
+    /**
+     * Opens the cache stored in the given file, which is created on the first {@link #put(long, List)} if absent.
+     *
+     * @param file         the cache file.
+     * @param objectMapper the JSON object mapper serializing entries.
+     * @return the opened {@code FileEvaluationStepsCache}.
+     * @throws IOException if the cache file exists but cannot be read.
+     */
+    public static FileEvaluationStepsCache open(final Path file, final ObjectMapper objectMapper) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("The file cannot be null");
+        }
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("The objectMapper cannot be null");
+        }
+
+        final Map<String, List<String>> entries = Files.exists(file)
+            ? objectMapper.readValue(file.toFile(), ENTRIES_TYPE)
+            : Map.of();
+        return new FileEvaluationStepsCache(file, objectMapper, entries);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Always {@code true}, since steps are kept in the cache file.
+     */
+    @Override
+    public boolean persistent() {
+        return true;
+    }
+
+    @Override
+    public List<String> get(final long criteriaFingerprint) {
+        return entries.get(Long.toHexString(criteriaFingerprint));
+    }
+
+    @Override
+    public synchronized void put(final long criteriaFingerprint, final List<String> evaluationSteps) {
+        entries.put(Long.toHexString(criteriaFingerprint), List.copyOf(evaluationSteps));
+        try {
+            save();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save evaluation steps to " + file, e);
+        }
+    }
+
+    /**
+     * Returns the number of cached criteria.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Atomically replaces the cache file with the current entries, sorted by key for stable diffs.
+     *
+     * @throws IOException if the cache file cannot be written.
+     */
+    private void save() throws IOException {
+        final var directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final var temporaryPath = directory.resolve(file.getFileName() + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(temporaryPath.toFile(), new TreeMap<>(entries));
+        Files.move(temporaryPath, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,48 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * The {@code Fingerprints} class computes 64-bit FNV-1a fingerprints of text, used as compact
+ * cache keys for evaluation inputs and configurations.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class Fingerprints {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    /**
+     * Computes the fingerprint of the given parts. Parts are separated by a {@code NUL} character,
+     * so that moving text from one part to the next changes the fingerprint.
+     *
+     * @param parts the text parts to fingerprint.
+     * @return the 64-bit fingerprint.
+     */
+    static long of(final CharSequence... parts) {
+        long hash = OFFSET_BASIS;
+        for (final var part : parts) {
+            hash = update(hash, part);
+            hash = (hash ^ '\0') * PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Continues the given fingerprint with the characters of {@code text}.
+     *
+     * @param hash the fingerprint computed so far.
+     * @param text the text to add.
+     * @return the updated fingerprint.
+     */
+    private static long update(final long hash, final CharSequence text) {
+        long result = hash;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            result = (result ^ (c & 0xff)) * PRIME;
+            result = (result ^ (c >>> 8)) * PRIME;
+        }
+        return result;
+    }
+}
@@ -1,14 +1,23 @@
 package com.webbfontaine.llm.evaluation.geval;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.input.Prompt;
-import dev.langchain4j.model.input.PromptTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 
@@ -53,12 +62,27 @@ import org.apache.commons.lang3.ObjectUtils;
 public class GEval {
 
     private static final String EVALUATION_PARAMS = "Input, Actual Output, and Expected Output";
+    private static final int DEFAULT_MAX_IN_FLIGHT = 16;
+    private static final String PACKED_NAME_SUFFIX = " (packed)";
 
     private final String name;
     private final double threshold;
     private final List<String> evaluationSteps;
-    private final ChatLanguageModel chatLanguageModel;
+    private final JudgeCascade cascade;
     private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final CompiledPromptTemplate evaluationPrompt;
+    private final CompiledPromptTemplate packedEvaluationPrompt;
+    private final EvaluationCache cache;
+    private final long configFingerprint;
+    private final long packedConfigFingerprint;
+    private final RetryPolicy retryPolicy;
+    private final LenientEvaluationResponseParser lenientParser;
+    private final SamplingPolicy samplingPolicy;
+    private final GEvalMetrics metrics;
+    private final List<PreJudgeStage> preJudgeStages;
+    private final TokenUsageCounter tokenUsage = new TokenUsageCounter();
 
     /**
      * Returns a builder instance to create a {@code GEval} object.
@@ -75,17 +99,34 @@ public class GEval {
      * @param name              the name of the evaluation framework instance.
      * @param threshold         the minimum score threshold for successful evaluation.
      * @param evaluationSteps   a list of steps to guide the evaluation process.
-     * @param chatLanguageModel the chat language model used for evaluation.
+     * @param cascade           the judge models used for evaluation, from the cheapest to the most capable.
      * @param objectMapper      the JSON object mapper for parsing AI responses.
+     * @param executor          the executor running asynchronous evaluations.
+     * @param maxInFlight       the default maximum number of concurrent evaluations in batch mode.
+     * @param cache             the optional cache of evaluation results; may be null.
+     * @param modelName         the name identifying the judge models in cache keys.
+     * @param retryPolicy       the optional policy retrying failed judge calls; may be null.
+     * @param samplingPolicy    the policy defining how many judge samples are averaged per test case.
+     * @param metrics           the optional metrics receiving the duration of every phase; may be null.
+     * @param preJudgeStages    the stages consulted in order before the judge model; may be empty.
      * @throws IllegalArgumentException if {@code name} is null or empty, {@code threshold} is not between 0 and 1,
-     *                                  or {@code evaluationSteps} is null or empty.
+     *                                  {@code evaluationSteps} is null or empty, {@code maxInFlight} is not positive,
+     *                                  or {@code samplingPolicy} is null.
      */
     private GEval(
         final String name,
         final double threshold,
         final List<String> evaluationSteps,
-        final ChatLanguageModel chatLanguageModel,
-        final ObjectMapper objectMapper
+        final JudgeCascade cascade,
+        final ObjectMapper objectMapper,
+        final Executor executor,
+        final int maxInFlight,
+        final EvaluationCache cache,
+        final String modelName,
+        final RetryPolicy retryPolicy,
+        final SamplingPolicy samplingPolicy,
+        final GEvalMetrics metrics,
+        final List<PreJudgeStage> preJudgeStages
     ) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Name cannot be null or empty.");
@@ -99,11 +140,63 @@ public class GEval {
             throw new IllegalArgumentException("Evaluation steps cannot be null or empty.");
         }
 
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight evaluations must be positive.");
+        }
+
+        if (samplingPolicy == null) {
+            throw new IllegalArgumentException("Sampling policy cannot be null.");
+        }
+
         this.name = name;
         this.threshold = threshold;
         this.evaluationSteps = evaluationSteps;
-        this.chatLanguageModel = chatLanguageModel;
+        this.cascade = cascade;
         this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.evaluationPrompt = CompiledPromptTemplate.compile(
+            Templates.GENERATE_EVALUATION_RESULTS,
+            Map.of(
+                "parameters", EVALUATION_PARAMS,
+                "evaluation_steps", numberEvaluationSteps()
+            ),
+            "text"
+        );
+        this.packedEvaluationPrompt = CompiledPromptTemplate.compile(
+            Templates.GENERATE_PACKED_EVALUATION_RESULTS,
+            Map.of(
+                "parameters", EVALUATION_PARAMS,
+                "evaluation_steps", numberEvaluationSteps()
+            ),
+            "test_cases"
+        );
+        this.cache = cache;
+        this.configFingerprint = Fingerprints.of(
+            name,
+            Double.toString(threshold),
+            String.join("\n", evaluationSteps),
+            Templates.GENERATE_EVALUATION_RESULTS,
+            modelName,
+            samplingPolicy.toString()
+        );
+        this.packedConfigFingerprint = Fingerprints.of(
+            name,
+            Double.toString(threshold),
+            String.join("\n", evaluationSteps),
+            Templates.GENERATE_PACKED_EVALUATION_RESULTS,
+            modelName,
+            samplingPolicy.toString()
+        );
+        if (cache != null) {
+            cache.registerConfiguration(name, configFingerprint);
+            cache.registerConfiguration(name + PACKED_NAME_SUFFIX, packedConfigFingerprint);
+        }
+        this.retryPolicy = retryPolicy;
+        this.lenientParser = new LenientEvaluationResponseParser(objectMapper);
+        this.samplingPolicy = samplingPolicy;
+        this.metrics = metrics;
+        this.preJudgeStages = preJudgeStages == null ? List.of() : List.copyOf(preJudgeStages);
     }
 
     /**
@@ -113,31 +206,862 @@ public class GEval {
      * @return a {@link GEvalMeasureResult} containing the success status, score, and reason.
      */
     public GEvalMeasureResult measure(final LLMTestCase llmTestCase) {
+        return timed(GEvalPhase.MEASURE, () -> evaluate(llmTestCase));
+    }
+
+    /**
+     * Measures the performance of a test case, from the cache if present, otherwise by asking the judge model.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @return a {@link GEvalMeasureResult} containing the success status, score, and reason.
+     */
+    private GEvalMeasureResult evaluate(final LLMTestCase llmTestCase) {
         log.debug("Measuring test case - {} via - {}", llmTestCase, name);
 
-        final Prompt prompt = new PromptTemplate(
-            Templates.GENERATE_EVALUATION_RESULTS
-        ).apply(
-            Map.of(
-                "parameters", EVALUATION_PARAMS,
-                "evaluation_steps", numberEvaluationSteps(),
-                "text", llmTestCase.generateText()
-            )
+        final var preJudgedResult = preJudge(llmTestCase);
+        if (preJudgedResult != null) {
+            log.debug("Pre-judged test case - {} via - {}, result - {}", llmTestCase, name, preJudgedResult);
+            return preJudgedResult;
+        }
+
+        final var text = llmTestCase.generateText();
+        final var cacheKey = cacheKey(text);
+        if (cacheKey != null) {
+            final var cachedResult = cache.get(cacheKey);
+            if (cachedResult != null) {
+                log.debug("Found cached result for test case - {} via - {}, result - {}", llmTestCase, name, cachedResult);
+                return cachedResult.withTokenUsage(EvaluationTokenUsage.NONE);
+            }
+        }
+
+        final var gEvalMeasureResult = judgeAndCache(text, cacheKey);
+        log.debug("Successfully measured test case - {} via - {}, result - {}", llmTestCase, name, gEvalMeasureResult);
+        return gEvalMeasureResult;
+    }
+
+    /**
+     * Asks the judge models to evaluate the given text, and caches the result if a cache is configured.
+     *
+     * @param text     the test case text, as produced by {@link LLMTestCase#generateText()}.
+     * @param cacheKey the cache key of the text, or {@code null} if no cache is configured.
+     * @return a {@link GEvalMeasureResult} containing the success status, score, and reason.
+     * @throws EvaluationMessageParsingRuntimeException if no reply can be parsed.
+     */
+    private GEvalMeasureResult judgeAndCache(final String text, final EvaluationCacheKey cacheKey) {
+        final var gEvalMeasureResult = judge(text);
+        if (cacheKey != null) {
+            cache.put(cacheKey, gEvalMeasureResult);
+        }
+        return gEvalMeasureResult;
+    }
+
+    /**
+     * Consults the pre-judge stages in order, until one decides the test case.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @return the result of the first deciding stage, or {@code null} if the judge model is needed.
+     */
+    private GEvalMeasureResult preJudge(final LLMTestCase llmTestCase) {
+        for (final var preJudgeStage : preJudgeStages) {
+            final var result = preJudgeStage.evaluate(llmTestCase, threshold);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cache key of the given test case text.
+     *
+     * @param text the test case text, as produced by {@link LLMTestCase#generateText()}.
+     * @return the {@link EvaluationCacheKey}, or {@code null} if no cache is configured.
+     */
+    private EvaluationCacheKey cacheKey(final String text) {
+        return cache == null ? null : new EvaluationCacheKey(configFingerprint, Fingerprints.of(text));
+    }
+
+    /**
+     * Returns the cache key of the packed judgement of the given test case text, kept apart from the results
+     * of {@link #measure(LLMTestCase)} since a packed judgement is a single sample of another prompt.
+     *
+     * @param text the test case text, as produced by {@link LLMTestCase#generateText()}.
+     * @return the {@link EvaluationCacheKey}, or {@code null} if no cache is configured.
+     */
+    private EvaluationCacheKey packedCacheKey(final String text) {
+        return cache == null ? null : new EvaluationCacheKey(packedConfigFingerprint, Fingerprints.of(text));
+    }
+
+    /**
+     * Asks the judge models of the cascade to evaluate the given text, from the first tier, escalating
+     * to the next tier while the score lies within the uncertainty band of the current one.
+     *
+     * @param text the test case text, as produced by {@link LLMTestCase#generateText()}.
+     * @return a {@link GEvalMeasureResult} containing the success status, score, and reason.
+     * @throws EvaluationMessageParsingRuntimeException if no reply can be parsed.
+     */
+    private GEvalMeasureResult judge(final String text) {
+        final var prompt = timed(GEvalPhase.RENDER, () -> evaluationPrompt.render(text));
+        return judgeFrom(prompt, 0, new TokenUsageCounter());
+    }
+
+    /**
+     * Asks the judge models of the cascade to evaluate the prompt, from the given tier, escalating
+     * to the next tier while the score lies within the uncertainty band of the current one.
+     *
+     * @param prompt          the evaluation prompt.
+     * @param firstTier       the first tier to ask.
+     * @param judgeTokenUsage the counter of the tokens consumed by the judgement, including lower tiers.
+     * @return the {@link GEvalMeasureResult} of the last tier asked, with the tokens consumed by all tiers.
+     * @throws EvaluationMessageParsingRuntimeException if no reply can be parsed.
+     */
+    private GEvalMeasureResult judgeFrom(final String prompt, final int firstTier, final TokenUsageCounter judgeTokenUsage) {
+        for (int tier = firstTier; ; tier++) {
+            final var result = judgeWith(prompt, cascade.chatLanguageModel(tier), judgeTokenUsage);
+            if (!cascade.escalates(tier, result.score(), threshold)) {
+                return result.withTokenUsage(judgeTokenUsage.sum());
+            }
+            log.debug("Escalating score {} of tier {} to tier {} via - {}", result.score(), tier, tier + 1, name);
+        }
+    }
+
+    /**
+     * Asks the judge model to evaluate the prompt, as many times as the sampling policy requires,
+     * and aggregates its replies into a result.
+     *
+     * <p>The minimum number of samples is requested concurrently. Further samples are then requested one at a time,
+     * until the sampled scores are conclusive or the maximum number of samples is reached.
+     *
+     * @param prompt          the evaluation prompt.
+     * @param judgeModel      the judge model.
+     * @param judgeTokenUsage the counter of the tokens consumed by the judgement.
+     * @return a {@link GEvalMeasureResult} containing the success status, score, and reason.
+     * @throws EvaluationMessageParsingRuntimeException if no reply can be parsed.
+     */
+    private GEvalMeasureResult judgeWith(
+        final String prompt,
+        final ChatLanguageModel judgeModel,
+        final TokenUsageCounter judgeTokenUsage
+    ) {
+        final var evaluationResponses = sample(prompt, judgeModel, samplingPolicy.minSamples(), judgeTokenUsage);
+        final var statistics = scoreStatistics(evaluationResponses);
+
+        for (int requested = samplingPolicy.minSamples(); requested < samplingPolicy.maxSamples(); requested++) {
+            if (samplingPolicy.isConclusive(statistics, threshold)) {
+                log.debug("Stopped sampling after {} samples via - {}", requested, name);
+                break;
+            }
+
+            try {
+                final var evaluationResponse = askJudge(prompt, judgeModel, judgeTokenUsage);
+                evaluationResponses.add(evaluationResponse);
+                statistics.add(evaluationResponse.score() / 10.0);
+            } catch (RuntimeException e) {
+                log.warn("Additional sample failed via - {}", name, e);
+            }
+        }
+        return aggregate(evaluationResponses, statistics, judgeTokenUsage.sum());
+    }
+
+    /**
+     * Asks the judge model to evaluate the prompt {@code samples} times concurrently.
+     *
+     * <p>The first sample is requested on the calling thread and the others on the shared default executor rather than
+     * the configured one, since the calling thread, often a task of the configured executor, blocks until they complete;
+     * on a bounded executor whose workers all wait for samples, the samples would never run. Failed samples
+     * are left out, as long as at least one sample succeeds.
+     *
+     * @param prompt          the evaluation prompt.
+     * @param judgeModel      the judge model.
+     * @param samples         the number of samples.
+     * @param judgeTokenUsage the counter of the tokens consumed by the judgement.
+     * @return the parsed replies of the successful samples.
+     * @throws RuntimeException the failure of the last failed sample, if all samples failed.
+     */
+    private List<EvaluationResponse> sample(
+        final String prompt,
+        final ChatLanguageModel judgeModel,
+        final int samples,
+        final TokenUsageCounter judgeTokenUsage
+    ) {
+        final List<CompletableFuture<EvaluationResponse>> futures = new ArrayList<>(samples - 1);
+        for (int i = 1; i < samples; i++) {
+            futures.add(CompletableFuture.supplyAsync(
+                () -> askJudge(prompt, judgeModel, judgeTokenUsage),
+                GEvalExecutors.defaultExecutor()
+            ));
+        }
+
+        final List<EvaluationResponse> evaluationResponses = new ArrayList<>(samples);
+        RuntimeException failure = null;
+        try {
+            evaluationResponses.add(askJudge(prompt, judgeModel, judgeTokenUsage));
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (final var future : futures) {
+            try {
+                evaluationResponses.add(future.join());
+            } catch (CompletionException e) {
+                failure = unwrap(e) instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        if (evaluationResponses.isEmpty()) {
+            throw failure;
+        }
+        if (failure != null) {
+            log.warn("{} of {} samples failed via - {}", samples - evaluationResponses.size(), samples, name, failure);
+        }
+        return evaluationResponses;
+    }
+
+    /**
+     * Asks the judge model to evaluate the prompt once, retrying according to the retry policy.
+     *
+     * @param prompt          the evaluation prompt.
+     * @param judgeModel      the judge model.
+     * @param judgeTokenUsage the counter of the tokens consumed by the judgement.
+     * @return the parsed {@link EvaluationResponse}.
+     * @throws EvaluationMessageParsingRuntimeException if the reply cannot be parsed.
+     */
+    private EvaluationResponse askJudge(
+        final String prompt,
+        final ChatLanguageModel judgeModel,
+        final TokenUsageCounter judgeTokenUsage
+    ) {
+        if (retryPolicy == null) {
+            return generateEvaluationResponse(prompt, judgeModel, judgeTokenUsage);
+        }
+        return retryPolicy.execute(() -> generateEvaluationResponse(prompt, judgeModel, judgeTokenUsage), name);
+    }
+
+    /**
+     * Calls the judge model with the prompt and parses its reply.
+     *
+     * @param prompt          the evaluation prompt.
+     * @param judgeModel      the judge model.
+     * @param judgeTokenUsage the counter of the tokens consumed by the judgement.
+     * @return the parsed {@link EvaluationResponse}.
+     * @throws EvaluationMessageParsingRuntimeException if the reply cannot be parsed.
+     */
+    private EvaluationResponse generateEvaluationResponse(
+        final String prompt,
+        final ChatLanguageModel judgeModel,
+        final TokenUsageCounter judgeTokenUsage
+    ) {
+        final var message = generateMessage(prompt, judgeModel, judgeTokenUsage);
+        return timed(GEvalPhase.PARSE, () -> parseAIResponseMessage(message));
+    }
+
+    /**
+     * Calls the judge model with the prompt, adding the reported token usage to the judgement and to this instance.
+     *
+     * @param prompt          the evaluation prompt.
+     * @param judgeModel      the judge model.
+     * @param judgeTokenUsage the counter of the tokens consumed by the judgement.
+     * @return the text of the judge reply.
+     */
+    private String generateMessage(final String prompt, final ChatLanguageModel judgeModel, final TokenUsageCounter judgeTokenUsage) {
+        final var aiMessageResponse = timed(
+            GEvalPhase.MODEL_CALL,
+            () -> judgeModel.generate(SystemMessage.systemMessage(prompt))
         );
+        final var callTokenUsage = EvaluationTokenUsage.from(aiMessageResponse.tokenUsage());
+        judgeTokenUsage.add(callTokenUsage);
+        recordTokenUsage(callTokenUsage);
+        return aiMessageResponse.content().text();
+    }
 
-        final var aiMessageResponse = chatLanguageModel.generate(SystemMessage.systemMessage(prompt.text()));
-        final var text = aiMessageResponse.content().text();
-        final var evaluationResponse = parseAIResponseMessage(text);
+    /**
+     * Adds the given usage to the tokens consumed by this instance.
+     *
+     * @param callTokenUsage the usage of a judge call.
+     */
+    void recordTokenUsage(final EvaluationTokenUsage callTokenUsage) {
+        tokenUsage.add(callTokenUsage);
+    }
+
+    /**
+     * Returns the tokens consumed by all judge calls of this instance so far, including failed and retried calls.
+     *
+     * @return the total {@link EvaluationTokenUsage}.
+     */
+    public EvaluationTokenUsage tokenUsage() {
+        return tokenUsage.sum();
+    }
+
+    /**
+     * Runs the action, reporting its duration and outcome to the metrics as the given phase, if metrics are set.
+     *
+     * @param phase  the phase of the action.
+     * @param action the action to run.
+     * @param <T>    the result type of the action.
+     * @return the result of the action.
+     */
+    private <T> T timed(final GEvalPhase phase, final Supplier<T> action) {
+        if (metrics == null) {
+            return action.get();
+        }
+
+        final long startNanos = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            final T result = action.get();
+            succeeded = true;
+            return result;
+        } finally {
+            metrics.record(name, phase, System.nanoTime() - startNanos, succeeded);
+        }
+    }
+
+    /**
+     * Computes the statistics of the scores of the judge replies, normalized between 0 and 1.
+     *
+     * @param evaluationResponses the parsed judge replies.
+     * @return the {@link ScoreStatistics} of the normalized scores.
+     */
+    private static ScoreStatistics scoreStatistics(final List<EvaluationResponse> evaluationResponses) {
+        final var statistics = new ScoreStatistics();
+        for (final var evaluationResponse : evaluationResponses) {
+            statistics.add(evaluationResponse.score() / 10.0);
+        }
+        return statistics;
+    }
+
+    /**
+     * Converts a single judge reply into a result.
+     *
+     * @param evaluationResponse the parsed judge reply.
+     * @param resultTokenUsage   the tokens attributed to the result.
+     * @return the {@link GEvalMeasureResult}.
+     */
+    private GEvalMeasureResult toMeasureResult(final EvaluationResponse evaluationResponse, final EvaluationTokenUsage resultTokenUsage) {
         final double score = evaluationResponse.score() / 10.0;
+        return new GEvalMeasureResult(score >= threshold, score, evaluationResponse.reason(), 0.0, 1, resultTokenUsage);
+    }
+
+    /**
+     * Aggregates the judge replies into a result whose score is the mean of the sampled scores,
+     * and whose description is the reason given for the score closest to the mean.
+     *
+     * @param evaluationResponses the parsed judge replies; not empty.
+     * @param statistics          the statistics of the normalized scores of the replies.
+     * @param resultTokenUsage    the tokens consumed by the judgement.
+     * @return the aggregated {@link GEvalMeasureResult}.
+     */
+    private GEvalMeasureResult aggregate(
+        final List<EvaluationResponse> evaluationResponses,
+        final ScoreStatistics statistics,
+        final EvaluationTokenUsage resultTokenUsage
+    ) {
+        final double score = statistics.mean();
+        var representativeResponse = evaluationResponses.get(0);
+        for (final var evaluationResponse : evaluationResponses) {
+            if (Math.abs(evaluationResponse.score() / 10.0 - score) < Math.abs(representativeResponse.score() / 10.0 - score)) {
+                representativeResponse = evaluationResponse;
+            }
+        }
 
-        final var gEvalMeasureResult = new GEvalMeasureResult(
+        return new GEvalMeasureResult(
             score >= threshold,
             score,
-            evaluationResponse.reason()
+            representativeResponse.reason(),
+            statistics.variance(),
+            statistics.count(),
+            resultTokenUsage
         );
+    }
 
-        log.debug("Successfully measured test case - {} via - {}, result - {}", llmTestCase, name, gEvalMeasureResult);
-        return gEvalMeasureResult;
+    /**
+     * Asynchronously measures the performance of a test case using the defined evaluation framework.
+     *
+     * <p>The evaluation runs on the executor configured via {@link GEvalBuilder#executor(Executor)},
+     * which defaults to a virtual-thread-per-task executor when the runtime supports it. Failures,
+     * such as {@link EvaluationMessageParsingRuntimeException}, complete the returned future exceptionally.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @return a {@link CompletableFuture} completed with the {@link GEvalMeasureResult}.
+     */
+    public CompletableFuture<GEvalMeasureResult> measureAsync(final LLMTestCase llmTestCase) {
+        return CompletableFuture.supplyAsync(() -> measure(llmTestCase), executor);
+    }
+
+    /**
+     * Measures all given test cases concurrently, with at most the configured number of evaluations in flight.
+     *
+     * @param llmTestCases the test cases to evaluate.
+     * @return the {@link GEvalBatchResult}s, in the iteration order of {@code llmTestCases}.
+     * @see #measureAll(Iterator, int)
+     */
+    public List<GEvalBatchResult> measureAll(final Iterable<LLMTestCase> llmTestCases) {
+        return measureAll(llmTestCases.iterator(), maxInFlight);
+    }
+
+    /**
+     * Measures all given test cases concurrently, with at most {@code maxInFlight} evaluations in flight.
+     *
+     * @param llmTestCases the test cases to evaluate.
+     * @param maxInFlight  the maximum number of concurrent evaluations.
+     * @return the {@link GEvalBatchResult}s, in the iteration order of {@code llmTestCases}.
+     * @see #measureAll(Iterator, int)
+     */
+    public List<GEvalBatchResult> measureAll(final Iterable<LLMTestCase> llmTestCases, final int maxInFlight) {
+        return measureAll(llmTestCases.iterator(), maxInFlight);
+    }
+
+    /**
+     * Measures all test cases of the given iterator concurrently, with at most {@code maxInFlight}
+     * evaluations in flight.
+     *
+     * <p>The iterator is consumed lazily: the calling thread blocks while {@code maxInFlight} evaluations
+     * are running. A failing test case is reported as a {@link GEvalBatchResult} carrying the failure
+     * and does not abort the remaining evaluations.
+     *
+     * @param llmTestCases the test cases to evaluate.
+     * @param maxInFlight  the maximum number of concurrent evaluations.
+     * @return the {@link GEvalBatchResult}s, in the iteration order of {@code llmTestCases}.
+     * @throws IllegalArgumentException if {@code maxInFlight} is not positive.
+     * @throws IllegalStateException    if the calling thread is interrupted while waiting for a free slot.
+     */
+    public List<GEvalBatchResult> measureAll(final Iterator<LLMTestCase> llmTestCases, final int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight evaluations must be positive.");
+        }
+
+        log.debug("Measuring test cases via - {} with at most {} in flight", name, maxInFlight);
+
+        final var batchResults = runBounded(
+            llmTestCases,
+            maxInFlight,
+            (index, llmTestCase) -> measureAsync(llmTestCase)
+                .handle((result, failure) -> toBatchResult(index, llmTestCase, result, failure))
+        );
+
+        log.debug("Successfully measured {} test cases via - {}", batchResults.size(), name);
+        return batchResults;
+    }
+
+    /**
+     * Measures all given test cases, packing up to {@code packSize} test cases into each judge call,
+     * with at most the configured number of judge calls in flight.
+     *
+     * @param llmTestCases the test cases to evaluate.
+     * @param packSize     the maximum number of test cases per judge call.
+     * @return the {@link GEvalBatchResult}s, in the iteration order of {@code llmTestCases}.
+     * @see #measurePacked(Iterator, int, int)
+     */
+    public List<GEvalBatchResult> measurePacked(final Iterable<LLMTestCase> llmTestCases, final int packSize) {
+        return measurePacked(llmTestCases.iterator(), packSize, maxInFlight);
+    }
+
+    /**
+     * Measures all test cases of the given iterator, packing up to {@code packSize} test cases into each judge call,
+     * with at most {@code maxInFlight} judge calls in flight.
+     *
+     * <p>Packing amortizes the evaluation instructions over several short test cases, raising throughput per request
+     * and per token. The judge replies with a JSON array of scores and reasons identified by test case ids; test cases
+     * missing from the reply, or belonging to a pack whose reply cannot be parsed, are measured one by one with
+     * {@link #measure(LLMTestCase)}. Packed judgements are single samples, whatever the sampling policy, and the
+     * tokens of a pack are split evenly among the test cases answered by its reply. They are cached apart from the
+     * results of {@link #measure(LLMTestCase)}, which packing reuses but never overwrites. The measure phase of a
+     * test case answered by its pack lasts from the start of the pack until its result.
+     *
+     * @param llmTestCases the test cases to evaluate.
+     * @param packSize     the maximum number of test cases per judge call.
+     * @param maxInFlight  the maximum number of concurrent judge calls.
+     * @return the {@link GEvalBatchResult}s, in the iteration order of {@code llmTestCases}.
+     * @throws IllegalArgumentException if {@code packSize} or {@code maxInFlight} is not positive.
+     * @throws IllegalStateException    if the calling thread is interrupted while waiting for a free slot.
+     */
+    public List<GEvalBatchResult> measurePacked(final Iterator<LLMTestCase> llmTestCases, final int packSize, final int maxInFlight) {
+        if (packSize < 1) {
+            throw new IllegalArgumentException("Pack size must be positive.");
+        }
+
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight evaluations must be positive.");
+        }
+
+        log.debug("Measuring test cases via - {} in packs of {} with at most {} in flight", name, packSize, maxInFlight);
+
+        final var packResults = runBounded(
+            packs(llmTestCases, packSize),
+            maxInFlight,
+            (packIndex, pack) -> CompletableFuture.supplyAsync(() -> measurePack(pack, packIndex * packSize), executor)
+                .exceptionally(failure -> failedPack(pack, packIndex * packSize, failure))
+        );
+
+        final List<GEvalBatchResult> batchResults = new ArrayList<>();
+        for (final var packResult : packResults) {
+            batchResults.addAll(packResult);
+        }
+
+        log.debug("Successfully measured {} test cases via - {}", batchResults.size(), name);
+        return batchResults;
+    }
+
+    /**
+     * Measures a pack of test cases with a single judge call, falling back to one call per test case
+     * for test cases missing from the reply.
+     *
+     * @param pack       the test cases of the pack.
+     * @param firstIndex the position of the first test case of the pack in the batch.
+     * @return the {@link GEvalBatchResult}s of the pack, in pack order.
+     */
+    private List<GEvalBatchResult> measurePack(final List<LLMTestCase> pack, final int firstIndex) {
+        final long startNanos = System.nanoTime();
+        final var packedCacheKeys = new EvaluationCacheKey[pack.size()];
+        final var results = new GEvalMeasureResult[pack.size()];
+        final var testCasesText = new StringBuilder();
+        int pending = 0;
+        for (int i = 0; i < pack.size(); i++) {
+            results[i] = preJudge(pack.get(i));
+            if (results[i] != null) {
+                continue;
+            }
+
+            final var text = pack.get(i).generateText();
+            final var cacheKey = cacheKey(text);
+            if (cacheKey != null) {
+                packedCacheKeys[i] = packedCacheKey(text);
+                results[i] = cache.get(cacheKey);
+                if (results[i] == null) {
+                    results[i] = cache.get(packedCacheKeys[i]);
+                }
+            }
+            if (results[i] == null) {
+                testCasesText.append("Test Case ").append(i + 1).append(":\n").append(text);
+                pending++;
+            }
+        }
+
+        Map<Integer, EvaluationResponse> evaluationResponses = Map.of();
+        final var packTokenUsage = new TokenUsageCounter();
+        if (pending > 1) {
+            final var prompt = timed(GEvalPhase.RENDER, () -> packedEvaluationPrompt.render(testCasesText.toString()));
+            try {
+                evaluationResponses = retryPolicy == null
+                    ? generatePackedEvaluationResponses(prompt, packTokenUsage)
+                    : retryPolicy.execute(() -> generatePackedEvaluationResponses(prompt, packTokenUsage), name);
+            } catch (RuntimeException e) {
+                log.warn("Packed evaluation of {} test cases failed via - {}, measuring them one by one", pending, name, e);
+            }
+        }
+
+        int answered = 0;
+        for (int i = 0; i < pack.size(); i++) {
+            if (results[i] == null && evaluationResponses.containsKey(i + 1)) {
+                answered++;
+            }
+        }
+
+        final var packUsage = packTokenUsage.sum();
+        final List<GEvalBatchResult> batchResults = new ArrayList<>(pack.size());
+        int share = 0;
+        for (int i = 0; i < pack.size(); i++) {
+            final var llmTestCase = pack.get(i);
+            if (results[i] != null) {
+                recordMeasure(startNanos, true);
+                batchResults.add(toBatchResult(firstIndex + i, llmTestCase, results[i].withTokenUsage(EvaluationTokenUsage.NONE), null));
+                continue;
+            }
+
+            final var evaluationResponse = evaluationResponses.get(i + 1);
+            if (evaluationResponse == null) {
+                try {
+                    batchResults.add(toBatchResult(firstIndex + i, llmTestCase, measure(llmTestCase), null));
+                } catch (RuntimeException e) {
+                    batchResults.add(toBatchResult(firstIndex + i, llmTestCase, null, e));
+                }
+                continue;
+            }
+
+            boolean succeeded = false;
+            try {
+                final var result = escalatePacked(llmTestCase, toMeasureResult(evaluationResponse, packUsage.share(share++, answered)));
+                if (packedCacheKeys[i] != null) {
+                    cache.put(packedCacheKeys[i], result);
+                }
+                succeeded = true;
+                batchResults.add(toBatchResult(firstIndex + i, llmTestCase, result, null));
+            } catch (RuntimeException e) {
+                batchResults.add(toBatchResult(firstIndex + i, llmTestCase, null, e));
+            } finally {
+                recordMeasure(startNanos, succeeded);
+            }
+        }
+        return batchResults;
+    }
+
+    /**
+     * Reports the measure phase of a test case answered along with others, by a pack or a composite call,
+     * to the metrics, if metrics are set.
+     *
+     * @param startNanos the start of the shared measure, as given by {@link System#nanoTime()}.
+     * @param succeeded  {@code false} if the test case failed.
+     */
+    void recordMeasure(final long startNanos, final boolean succeeded) {
+        recordPhase(GEvalPhase.MEASURE, System.nanoTime() - startNanos, succeeded);
+    }
+
+    /**
+     * Reports a phase run on behalf of this instance by a composite call to the metrics, if metrics are set.
+     *
+     * @param phase         the phase.
+     * @param durationNanos the duration of the phase, in nanoseconds.
+     * @param succeeded     {@code false} if the phase failed.
+     */
+    void recordPhase(final GEvalPhase phase, final long durationNanos, final boolean succeeded) {
+        if (metrics != null) {
+            metrics.record(name, phase, durationNanos, succeeded);
+        }
+    }
+
+    /**
+     * Escalates the result given by the first tier to a packed test case to the next tiers of the cascade,
+     * if its score lies within the uncertainty band of the first tier.
+     *
+     * @param llmTestCase the test case.
+     * @param result      the result given by the first tier, with its share of the pack tokens.
+     * @return the result of the last tier asked, with the tokens consumed by all tiers.
+     * @throws EvaluationMessageParsingRuntimeException if no reply of a higher tier can be parsed.
+     */
+    private GEvalMeasureResult escalatePacked(final LLMTestCase llmTestCase, final GEvalMeasureResult result) {
+        if (!cascade.escalates(0, result.score(), threshold)) {
+            return result;
+        }
+
+        final var prompt = timed(GEvalPhase.RENDER, () -> evaluationPrompt.render(llmTestCase.generateText()));
+        final var judgeTokenUsage = new TokenUsageCounter();
+        judgeTokenUsage.add(result.tokenUsage());
+        return judgeFrom(prompt, 1, judgeTokenUsage);
+    }
+
+    /**
+     * Calls the judge model with a packed prompt and parses its reply into judge replies keyed by test case id.
+     *
+     * @param prompt         the packed evaluation prompt.
+     * @param packTokenUsage the counter of the tokens consumed by the pack.
+     * @return the parsed {@link EvaluationResponse}s, keyed by test case id.
+     * @throws EvaluationMessageParsingRuntimeException if the reply holds no JSON array.
+     */
+    private Map<Integer, EvaluationResponse> generatePackedEvaluationResponses(final String prompt, final TokenUsageCounter packTokenUsage) {
+        final var message = generateMessage(prompt, cascade.chatLanguageModel(0), packTokenUsage);
+        return timed(GEvalPhase.PARSE, () -> parsePackedReply(message));
+    }
+
+    /**
+     * Parses a packed judge reply into judge replies keyed by test case id.
+     *
+     * @param message the packed judge reply.
+     * @return the parsed {@link EvaluationResponse}s, keyed by test case id.
+     * @throws EvaluationMessageParsingRuntimeException if the reply holds no JSON array.
+     */
+    private Map<Integer, EvaluationResponse> parsePackedReply(final String message) {
+        JsonNode node = null;
+        Exception failure = null;
+        try {
+            node = objectMapper.readTree(message);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            failure = e;
+        }
+        if (node == null || !node.isArray()) {
+            node = lenientParser.readFirst(message, '[', ']', JsonNode::isArray);
+        }
+        if (node == null) {
+            throw new EvaluationMessageParsingRuntimeException(message, failure);
+        }
+
+        final Map<Integer, EvaluationResponse> evaluationResponses = new HashMap<>();
+        for (final var element : node) {
+            final var evaluationResponse = LenientEvaluationResponseParser.toEvaluationResponse(element);
+            if (evaluationResponse != null && element.hasNonNull("id")) {
+                evaluationResponses.put(element.get("id").asInt(), evaluationResponse);
+            }
+        }
+        return evaluationResponses;
+    }
+
+    /**
+     * Reports every test case of a pack as failed.
+     *
+     * @param pack       the test cases of the pack.
+     * @param firstIndex the position of the first test case of the pack in the batch.
+     * @param failure    the failure of the pack.
+     * @return the failed {@link GEvalBatchResult}s of the pack, in pack order.
+     */
+    private List<GEvalBatchResult> failedPack(final List<LLMTestCase> pack, final int firstIndex, final Throwable failure) {
+        final List<GEvalBatchResult> batchResults = new ArrayList<>(pack.size());
+        for (int i = 0; i < pack.size(); i++) {
+            batchResults.add(toBatchResult(firstIndex + i, pack.get(i), null, failure));
+        }
+        return batchResults;
+    }
+
+    /**
+     * Splits the test cases into consecutive packs of up to {@code packSize} test cases, lazily.
+     *
+     * @param llmTestCases the test cases to split.
+     * @param packSize     the maximum number of test cases per pack.
+     * @return an iterator over the packs.
+     */
+    private static Iterator<List<LLMTestCase>> packs(final Iterator<LLMTestCase> llmTestCases, final int packSize) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return llmTestCases.hasNext();
+            }
+
+            @Override
+            public List<LLMTestCase> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final List<LLMTestCase> pack = new ArrayList<>(packSize);
+                while (pack.size() < packSize && llmTestCases.hasNext()) {
+                    pack.add(llmTestCases.next());
+                }
+                return pack;
+            }
+        };
+    }
+
+    /**
+     * Runs a task for every item of the iterator, with at most {@code maxInFlight} tasks running, and collects
+     * their results in iteration order.
+     *
+     * <p>The iterator is consumed lazily: the calling thread blocks while {@code maxInFlight} tasks are running.
+     *
+     * @param items       the items to process.
+     * @param maxInFlight the maximum number of concurrent tasks.
+     * @param task        the task, given the position and the item, returning a future that never completes
+     *                    exceptionally.
+     * @param <T>         the item type.
+     * @param <R>         the result type.
+     * @return the results of the tasks, in iteration order.
+     * @throws IllegalStateException if the calling thread is interrupted while waiting for a free slot.
+     */
+    private <T, R> List<R> runBounded(
+        final Iterator<T> items,
+        final int maxInFlight,
+        final BiFunction<Integer, T, CompletableFuture<R>> task
+    ) {
+        final var permits = new Semaphore(maxInFlight);
+        final List<CompletableFuture<R>> futures = new ArrayList<>();
+        while (items.hasNext()) {
+            final int index = futures.size();
+            final var item = items.next();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while measuring test cases via " + name, e);
+            }
+            futures.add(task.apply(index, item).whenComplete((result, failure) -> permits.release()));
+        }
+
+        final List<R> results = new ArrayList<>(futures.size());
+        for (final var future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Converts the outcome of a single asynchronous evaluation into a {@link GEvalBatchResult}.
+     *
+     * @param index       the position of the test case in the batch.
+     * @param llmTestCase the evaluated test case.
+     * @param result      the evaluation result, or {@code null} on failure.
+     * @param failure     the failure, or {@code null} on success.
+     * @return a {@link GEvalBatchResult} describing the outcome.
+     */
+    private GEvalBatchResult toBatchResult(
+        final int index,
+        final LLMTestCase llmTestCase,
+        final GEvalMeasureResult result,
+        final Throwable failure
+    ) {
+        if (failure == null) {
+            return new GEvalBatchResult(index, llmTestCase, result, null);
+        }
+
+        final var cause = unwrap(failure);
+        log.warn("Failed to measure test case #{} via - {}", index, name, cause);
+        return new GEvalBatchResult(index, llmTestCase, null, cause);
+    }
+
+    /**
+     * Unwraps the failure of an asynchronous evaluation from its {@link CompletionException}.
+     *
+     * @param failure the failure reported by a {@link CompletableFuture}.
+     * @return the underlying cause.
+     */
+    static Throwable unwrap(final Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * Returns the name of this evaluation.
+     *
+     * @return the name.
+     */
+    String name() {
+        return name;
+    }
+
+    /**
+     * Returns the minimum score threshold for successful evaluation.
+     *
+     * @return the threshold.
+     */
+    double threshold() {
+        return threshold;
+    }
+
+    /**
+     * Tells whether a single call to the first judge model is a complete judgement for this evaluation,
+     * that is whether it takes one sample per test case and has no higher tier to escalate to.
+     *
+     * @return {@code true} if one judge call decides a test case.
+     */
+    boolean judgesOnce() {
+        return samplingPolicy.maxSamples() == 1 && cascade.size() == 1;
+    }
+
+    /**
+     * Returns the result of a test case known without asking the judge model: decided by a pre-judge stage,
+     * or found in the cache.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @return the {@link GEvalMeasureResult}, or {@code null} if the judge model is needed.
+     */
+    GEvalMeasureResult preJudgeOrCached(final LLMTestCase llmTestCase) {
+        final var preJudgedResult = preJudge(llmTestCase);
+        if (preJudgedResult != null) {
+            return preJudgedResult;
+        }
+
+        final var cacheKey = cacheKey(llmTestCase.generateText());
+        final var cachedResult = cacheKey == null ? null : cache.get(cacheKey);
+        return cachedResult == null ? null : cachedResult.withTokenUsage(EvaluationTokenUsage.NONE);
+    }
+
+    /**
+     * Measures a test case already found by {@link #preJudgeOrCached(LLMTestCase)} to need the judge model,
+     * without consulting the pre-judge stages and the cache again; the result is cached.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @return a {@link GEvalMeasureResult} containing the success status, score, and reason.
+     * @throws EvaluationMessageParsingRuntimeException if no reply can be parsed.
+     */
+    GEvalMeasureResult measureJudged(final LLMTestCase llmTestCase) {
+        return timed(GEvalPhase.MEASURE, () -> {
+            final var text = llmTestCase.generateText();
+            return judgeAndCache(text, cacheKey(text));
+        });
     }
 
     /**
@@ -145,7 +1069,17 @@ public class GEval {
      *
      * @return a formatted string of evaluation steps.
      */
-    private String numberEvaluationSteps() {
+    String numberEvaluationSteps() {
+        return numberEvaluationSteps(evaluationSteps);
+    }
+
+    /**
+     * Generates a numbered list of the given evaluation steps, as rendered into the evaluation prompts.
+     *
+     * @param evaluationSteps the evaluation steps.
+     * @return a formatted string of evaluation steps.
+     */
+    static String numberEvaluationSteps(final List<String> evaluationSteps) {
         final var stringBuilder = new StringBuilder();
         for (int i = 0; i < evaluationSteps.size(); i++) {
             stringBuilder.append(i).append(". ").append(evaluationSteps.get(i)).append("\n");
@@ -156,16 +1090,33 @@ public class GEval {
     /**
      * Parses the AI response message into an {@link EvaluationResponse} object.
      *
+     * <p>Replies that are not strictly the expected JSON object, for example wrapped in markdown code fences,
+     * are recovered by a {@link LenientEvaluationResponseParser} rather than failing the evaluation.
+     *
      * @param message the response message in JSON format.
      * @return an {@link EvaluationResponse} object.
      * @throws EvaluationMessageParsingRuntimeException if the message cannot be parsed.
      */
-    private EvaluationResponse parseAIResponseMessage(final String message) {
+    EvaluationResponse parseAIResponseMessage(final String message) {
+        EvaluationResponse evaluationResponse = null;
+        Exception failure = null;
         try {
-            return objectMapper.readValue(message, EvaluationResponse.class);
-        } catch (JsonProcessingException e) {
-            throw new EvaluationMessageParsingRuntimeException(message, e);
+            evaluationResponse = objectMapper.readValue(message, EvaluationResponse.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            failure = e;
+        }
+
+        if (evaluationResponse != null && evaluationResponse.score() != null) {
+            return evaluationResponse;
+        }
+
+        final var recoveredResponse = lenientParser.parse(message);
+        if (recoveredResponse == null) {
+            throw new EvaluationMessageParsingRuntimeException(message, failure);
         }
+
+        log.debug("Recovered evaluation response from non-strict ai message via - {}", name);
+        return recoveredResponse;
     }
 
     /**
@@ -175,19 +1126,68 @@ public class GEval {
         private String name;
         private double threshold;
         private List<String> evaluationSteps;
+        private String criteria;
+        private EvaluationStepsCache stepsCache;
         private GEvalLlmParams gEvalLlmParams;
+        private JudgeCascade cascade;
+        private Executor executor;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private EvaluationCache cache;
+        private String modelName;
+        private RetryPolicy retryPolicy;
+        private SamplingPolicy samplingPolicy = SamplingPolicy.single();
+        private GEvalMetrics metrics;
+        private List<PreJudgeStage> preJudgeStages;
 
         /**
          * Builds and returns a {@code GEval} instance.
          *
+         * <p>If no evaluation steps are set but criteria are, the steps are generated from the criteria
+         * with one model call, unless found in the steps cache.
+         *
          * @return a new {@link GEval} instance.
-         * @throws IllegalArgumentException if {@code gEvalLlmParams} is null.
+         * @throws IllegalArgumentException                 if {@code gEvalLlmParams} is null, or a persistent cache
+         *                                                  is set while the judge models are not named.
+         * @throws EvaluationMessageParsingRuntimeException if steps cannot be generated from the criteria.
          */
         public GEval build() {
             if (gEvalLlmParams == null) {
                 throw new IllegalArgumentException("gEvalLlmParams cannot be null");
             }
-            return new GEval(name, threshold, evaluationSteps, gEvalLlmParams.chatLanguageModel(), gEvalLlmParams.objectMapper());
+
+            final var judgeModelName = modelName == null ? gEvalLlmParams.chatLanguageModel().getClass().getName() : modelName;
+            final var judgeCascade = cascade == null ? JudgeCascade.single(gEvalLlmParams.chatLanguageModel(), judgeModelName) : cascade;
+            final var generatesSteps = ObjectUtils.isEmpty(evaluationSteps) && criteria != null;
+            if ((cache != null && cache.persistent() && !judgeCascade.namesModels())
+                || (generatesSteps && stepsCache != null && stepsCache.persistent() && modelName == null)) {
+                throw new IllegalArgumentException(
+                    "modelName must be set with a persistent cache, since the model class name does not identify the model");
+            }
+            final var steps = generatesSteps
+                ? new EvaluationStepsGenerator(
+                    gEvalLlmParams.chatLanguageModel(),
+                    gEvalLlmParams.objectMapper(),
+                    judgeModelName,
+                    retryPolicy,
+                    stepsCache,
+                    EVALUATION_PARAMS
+                ).generate(criteria)
+                : evaluationSteps;
+            return new GEval(
+                name,
+                threshold,
+                steps,
+                judgeCascade,
+                gEvalLlmParams.objectMapper(),
+                executor == null ? GEvalExecutors.defaultExecutor() : executor,
+                maxInFlight,
+                cache,
+                judgeCascade.modelName(),
+                retryPolicy,
+                samplingPolicy,
+                metrics,
+                preJudgeStages
+            );
         }
 
         /**
@@ -223,6 +1223,32 @@ public class GEval {
             return this;
         }
 
+        /**
+         * Sets the criteria the evaluation steps are generated from, when no evaluation steps are set.
+         *
+         * <p>The steps are generated once, by {@link #build()}, and reused for every evaluation.
+         *
+         * @param criteria the evaluation criteria to set.
+         * @return the current {@code GEvalBuilder} instance.
+         * @see #stepsCache(EvaluationStepsCache)
+         */
+        public GEvalBuilder criteria(final String criteria) {
+            this.criteria = criteria;
+            return this;
+        }
+
+        /**
+         * Sets the cache of evaluation steps generated from criteria, such as a {@link FileEvaluationStepsCache},
+         * so that steps are not generated again on every build or JVM start.
+         *
+         * @param stepsCache the steps cache to set; {@code null} generates steps on every build.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder stepsCache(final EvaluationStepsCache stepsCache) {
+            this.stepsCache = stepsCache;
+            return this;
+        }
+
         /**
          * Sets the {@code GEvalLlmParams} containing the chat language model and object mapper.
          *
@@ -233,6 +1259,122 @@ public class GEval {
             this.gEvalLlmParams = gEvalLlmParams;
             return this;
         }
+
+        /**
+         * Sets the cascade of judge models evaluating test cases instead of the chat language model of the
+         * {@code GEvalLlmParams}, which is then only used to generate evaluation steps from criteria.
+         *
+         * @param cascade the judge cascade to set; {@code null} judges every test case with the chat language model.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder cascade(final JudgeCascade cascade) {
+            this.cascade = cascade;
+            return this;
+        }
+
+        /**
+         * Sets the executor used by {@link GEval#measureAsync(LLMTestCase)}, {@link GEval#measureAll(Iterable)}
+         * and {@link GEval#measurePacked(Iterable, int)}.
+         *
+         * <p>If not set, a shared virtual-thread-per-task executor is used on Java 21+,
+         * and a cached pool of daemon threads on older runtimes.
+         *
+         * <p>A bounded executor, such as a fixed thread pool, is supported: its tasks never wait for other tasks
+         * of the same executor, since the concurrent samples of a {@link SamplingPolicy} run on the shared
+         * default executor. Its size then also bounds the number of concurrent evaluations.
+         *
+         * @param executor the executor to set.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the default maximum number of concurrent evaluations used by {@link GEval#measureAll(Iterable)}.
+         *
+         * @param maxInFlight the maximum number of concurrent evaluations; defaults to 16.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder maxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets the cache consulted before calling the judge model, such as an {@link InMemoryEvaluationCache}
+         * or a {@link FileEvaluationCache}.
+         *
+         * @param cache the cache to set; {@code null} disables caching.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder cache(final EvaluationCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * Sets the name identifying the judge model in cache keys.
+         *
+         * <p>Defaults to the class name of the chat language model, which only suits in-memory caches. It is
+         * required with a persistent cache, such as a {@link FileEvaluationCache}, since models of the same class,
+         * or behind the same decorator, would otherwise share results across runs. The models of a
+         * {@link JudgeCascade} are named by their {@link JudgeTier}s instead.
+         *
+         * @param modelName the model name to set.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder modelName(final String modelName) {
+            this.modelName = modelName;
+            return this;
+        }
+
+        /**
+         * Sets the policy retrying failed judge calls, including replies that cannot be parsed.
+         *
+         * @param retryPolicy the retry policy to set; {@code null} disables retries.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder retryPolicy(final RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the policy defining how many judge samples are averaged per test case.
+         *
+         * @param samplingPolicy the sampling policy to set; defaults to {@link SamplingPolicy#single()}.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder sampling(final SamplingPolicy samplingPolicy) {
+            this.samplingPolicy = samplingPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the metrics receiving the duration and outcome of the render, model call, parse and measure phases,
+         * such as an {@link InMemoryGEvalMetrics} or an adapter to a monitoring system.
+         *
+         * @param metrics the metrics to set; {@code null} disables timing.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder metrics(final GEvalMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the stages consulted in order before the judge model, such as a {@link NormalizedMatchStage},
+         * which may decide clear-cut test cases without a judge call.
+         *
+         * @param preJudgeStages the pre-judge stages to set; {@code null} or empty sends every test case to the judge.
+         * @return the current {@code GEvalBuilder} instance.
+         */
+        public GEvalBuilder preJudgeStages(final List<PreJudgeStage> preJudgeStages) {
+            this.preJudgeStages = preJudgeStages;
+            return this;
+        }
     }
 
 }
@@ -0,0 +1,30 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * Represents the outcome of a single test case within a batch evaluation.
+ * <p>
+ * Exactly one of {@code result} and {@code failure} is non-null, so that a failing test case
+ * (for example, one raising {@link EvaluationMessageParsingRuntimeException}) is reported
+ * alongside the others instead of aborting the whole batch.
+ *
+ * @param index    the position of the test case in the input.
+ * @param testCase the evaluated test case.
+ * @param result   the evaluation result, or {@code null} if the evaluation failed.
+ * @param failure  the cause of the failure, or {@code null} if the evaluation succeeded.
+ */
+public record GEvalBatchResult(
+    int index,
+    LLMTestCase testCase,
+    GEvalMeasureResult result,
+    Throwable failure
+) {
+
+    /**
+     * Indicates whether the test case was evaluated without failure.
+     *
+     * @return {@code true} if a result is available, {@code false} otherwise.
+     */
+    public boolean succeeded() {
+        return failure == null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * The {@code GEvalExecutors} class provides the default {@link ExecutorService} used by
+ * {@link GEval} for asynchronous evaluations.
+ *
+ * <p>Judge calls spend almost all of their time waiting on the model provider, so the default
+ * executor starts one virtual thread per task when the runtime supports them (Java 21+).
+ * On older runtimes it falls back to a cached pool of daemon platform threads.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class GEvalExecutors {
+
+    /**
+     * Returns the shared default executor, creating it on first use.
+     *
+     * @return the shared default {@link ExecutorService}.
+     */
+    static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor if available, otherwise a cached daemon thread pool.
+     *
+     * @return a new {@link ExecutorService}.
+     */
+    private static ExecutorService newDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new DaemonThreadFactory());
+        }
+    }
+
+    /**
+     * Lazy holder for the shared default executor.
+     */
+    private static final class DefaultExecutorHolder {
+        private static final ExecutorService INSTANCE = newDefaultExecutor();
+    }
+
+    /**
+     * Thread factory producing named daemon threads, so that the fallback pool never keeps the JVM alive.
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final var thread = new Thread(runnable, "g-eval-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
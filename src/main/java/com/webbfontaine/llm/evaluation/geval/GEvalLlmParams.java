@@ -1,5 +1,7 @@
 package com.webbfontaine.llm.evaluation.geval;
 
+import java.util.List;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 
@@ -35,4 +37,83 @@ public record GEvalLlmParams(
         }
     }
 
+    /**
+     * Creates parameters whose chat language model spreads calls over several endpoints of the same judge model,
+     * so that a single {@link GEval} instance uses the quotas of all of them.
+     *
+     * @param endpoints    the endpoints of the judge model, with the same weight.
+     * @param strategy     the strategy picking the endpoint of a call.
+     * @param objectMapper the Jackson {@link ObjectMapper} instance for JSON processing
+     * @return new {@code GEvalLlmParams} with a {@link LoadBalancedChatLanguageModel}.
+     * @throws IllegalArgumentException if {@code endpoints} is null, empty or holds null, or {@code strategy}
+     *                                  or {@code objectMapper} is null.
+     * @see LoadBalancedChatLanguageModel#builder()
+     */
+    public static GEvalLlmParams loadBalanced(
+        final List<ChatLanguageModel> endpoints,
+        final LoadBalancingStrategy strategy,
+        final ObjectMapper objectMapper
+    ) {
+        if (endpoints == null) {
+            throw new IllegalArgumentException("The endpoints cannot be null");
+        }
+
+        final var builder = LoadBalancedChatLanguageModel.builder().strategy(strategy);
+        endpoints.forEach(builder::endpoint);
+        return new GEvalLlmParams(builder.build(), objectMapper);
+    }
+
+    /**
+     * Returns a copy of these parameters whose chat language model is rate limited, so that concurrent
+     * evaluations stay within the provider quota instead of failing with rate limit errors.
+     *
+     * @param requestsPerMinute the maximum number of requests per minute, or {@code 0} for no request limit.
+     * @param tokensPerMinute   the maximum number of estimated tokens per minute, or {@code 0} for no token limit.
+     * @return new {@code GEvalLlmParams} wrapping the model in a {@link RateLimitedChatLanguageModel}.
+     * @throws IllegalArgumentException if a limit is negative, or both limits are {@code 0}.
+     */
+    public GEvalLlmParams withRateLimit(final int requestsPerMinute, final int tokensPerMinute) {
+        return new GEvalLlmParams(
+            new RateLimitedChatLanguageModel(chatLanguageModel, requestsPerMinute, tokensPerMinute),
+            objectMapper
+        );
+    }
+
+    /**
+     * Returns a copy of these parameters whose chat language model adapts the number of concurrent calls to the
+     * capacity of the provider, growing it while calls succeed and halving it on rate limit errors and timeouts.
+     *
+     * @param maxLimit the maximum number of concurrent calls.
+     * @return new {@code GEvalLlmParams} wrapping the model in an {@link AdaptiveConcurrencyChatLanguageModel}.
+     * @throws IllegalArgumentException if {@code maxLimit} is not positive.
+     */
+    public GEvalLlmParams withAdaptiveConcurrency(final int maxLimit) {
+        return new GEvalLlmParams(
+            AdaptiveConcurrencyChatLanguageModel.builder()
+                .delegate(chatLanguageModel)
+                .initialLimit(Math.min(4, maxLimit))
+                .maxLimit(maxLimit)
+                .build(),
+            objectMapper
+        );
+    }
+
+    /**
+     * Returns a copy of these parameters whose chat language model hedges calls slower than the 95th percentile
+     * of previous calls with a duplicate call, keeping the first reply.
+     *
+     * @param maxHedgeRatio the maximum ratio of hedges to calls, between 0 and 1.
+     * @return new {@code GEvalLlmParams} wrapping the model in a {@link HedgingChatLanguageModel}.
+     * @throws IllegalArgumentException if {@code maxHedgeRatio} is not between 0 and 1.
+     */
+    public GEvalLlmParams withHedging(final double maxHedgeRatio) {
+        return new GEvalLlmParams(
+            HedgingChatLanguageModel.builder()
+                .delegate(chatLanguageModel)
+                .maxHedgeRatio(maxHedgeRatio)
+                .build(),
+            objectMapper
+        );
+    }
+
 }
@@ -5,14 +5,82 @@ package com.webbfontaine.llm.evaluation.geval;
  * <p>
  * This record encapsulates details about the evaluation of a test case,
  * including whether it passed, the evaluation score, and a description of the score.
+ * When the judge model is sampled several times, the score is the mean of the sampled scores.
  *
- * @param passed      indicates if the test case passed or failed.
- * @param score       the numerical evaluation score of the test case.
- * @param description a detailed explanation of the evaluation score.
+ * @param passed        indicates if the test case passed or failed.
+ * @param score         the numerical evaluation score of the test case.
+ * @param description   a detailed explanation of the evaluation score.
+ * @param scoreVariance the sample variance of the sampled scores, {@code 0} for a single sample.
+ * @param sampleCount   the number of judge samples the score is based on, {@code 0} if decided by a
+ *                      {@link PreJudgeStage}.
+ * @param tokenUsage    the tokens consumed to produce this result, including retries;
+ *                      {@link EvaluationTokenUsage#NONE} for results served from a cache.
  */
 public record GEvalMeasureResult(
     boolean passed,
     double score,
-    String description
+    String description,
+    double scoreVariance,
+    int sampleCount,
+    EvaluationTokenUsage tokenUsage
 ) {
-}
\ No newline at end of file
+
+    /**
+     * Constructs a {@code GEvalMeasureResult}, treating a missing token usage, as in results cached
+     * before usage was recorded, as no usage.
+     *
+     * @param passed        indicates if the test case passed or failed.
+     * @param score         the numerical evaluation score of the test case.
+     * @param description   a detailed explanation of the evaluation score.
+     * @param scoreVariance the sample variance of the sampled scores, {@code 0} for a single sample.
+     * @param sampleCount   the number of judge samples the score is based on, {@code 0} if decided by a
+     *                      {@link PreJudgeStage}.
+     * @param tokenUsage    the tokens consumed to produce this result, or {@code null} for no usage.
+     */
+    public GEvalMeasureResult {
+        if (tokenUsage == null) {
+            tokenUsage = EvaluationTokenUsage.NONE;
+        }
+    }
+
+    /**
+     * Constructs a {@code GEvalMeasureResult} without token usage.
+     *
+     * @param passed        indicates if the test case passed or failed.
+     * @param score         the numerical evaluation score of the test case.
+     * @param description   a detailed explanation of the evaluation score.
+     * @param scoreVariance the sample variance of the sampled scores, {@code 0} for a single sample.
+     * @param sampleCount   the number of judge samples the score is based on, {@code 0} if decided by a
+     *                      {@link PreJudgeStage}.
+     */
+    public GEvalMeasureResult(
+        final boolean passed,
+        final double score,
+        final String description,
+        final double scoreVariance,
+        final int sampleCount
+    ) {
+        this(passed, score, description, scoreVariance, sampleCount, EvaluationTokenUsage.NONE);
+    }
+
+    /**
+     * Constructs a {@code GEvalMeasureResult} based on a single judge sample.
+     *
+     * @param passed      indicates if the test case passed or failed.
+     * @param score       the numerical evaluation score of the test case.
+     * @param description a detailed explanation of the evaluation score.
+     */
+    public GEvalMeasureResult(final boolean passed, final double score, final String description) {
+        this(passed, score, description, 0.0, 1);
+    }
+
+    /**
+     * Returns a copy of this result with the given token usage.
+     *
+     * @param tokenUsage the token usage of the copy.
+     * @return the copied {@code GEvalMeasureResult}.
+     */
+    public GEvalMeasureResult withTokenUsage(final EvaluationTokenUsage tokenUsage) {
+        return new GEvalMeasureResult(passed, score, description, scoreVariance, sampleCount, tokenUsage);
+    }
+}
@@ -0,0 +1,33 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code GEvalMetrics} is the service provider interface receiving the duration and outcome of every phase
+ * of the evaluations of a {@link GEval}, keyed by evaluation name.
+ *
+ * <p>Implementations are called on the evaluating threads, and must therefore be thread-safe and cheap.
+ * {@link InMemoryGEvalMetrics} keeps dependency-free latency histograms; other monitoring systems are plugged in
+ * by implementing this interface, for example with Micrometer:
+ *
+ * <pre><code>
+ * final GEvalMetrics micrometerMetrics = (evaluationName, phase, durationNanos, succeeded) -&gt;
+ *     Timer.builder("geval." + phase.name().toLowerCase())
+ *         .tag("evaluation", evaluationName)
+ *         .tag("outcome", succeeded ? "success" : "error")
+ *         .publishPercentiles(0.5, 0.99)
+ *         .register(meterRegistry)
+ *         .record(durationNanos, TimeUnit.NANOSECONDS);
+ * </code></pre>
+ */
+@FunctionalInterface
+public interface GEvalMetrics {
+
+    /**
+     * Records a completed phase of an evaluation.
+     *
+     * @param evaluationName the name of the {@link GEval}.
+     * @param phase          the completed phase.
+     * @param durationNanos  the duration of the phase, in nanoseconds.
+     * @param succeeded      {@code false} if the phase failed with an exception.
+     */
+    void record(String evaluationName, GEvalPhase phase, long durationNanos, boolean succeeded);
+}
@@ -0,0 +1,27 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code GEvalPhase} enumerates the phases of an evaluation timed by {@link GEvalMetrics}.
+ */
+public enum GEvalPhase {
+
+    /**
+     * Rendering the evaluation prompt of a test case.
+     */
+    RENDER,
+
+    /**
+     * A single call to the judge model, one per attempt and per sample.
+     */
+    MODEL_CALL,
+
+    /**
+     * Parsing a judge reply, strictly and then leniently.
+     */
+    PARSE,
+
+    /**
+     * A whole {@link GEval#measure(LLMTestCase)}, including cache hits, samples and retries.
+     */
+    MEASURE
+}
@@ -0,0 +1,375 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code HedgingChatLanguageModel} is a {@link ChatLanguageModel} decorator cutting the tail latency of calls
+ * by hedging: when a call has not returned after the hedge delay, a duplicate call is sent, to the same model
+ * or to a second one, and the first successful reply wins while the reply of the other call is discarded.
+ *
+ * <p>The hedge delay is a percentile of the latencies of previous calls, the 95th by default, so that only
+ * the slowest calls are hedged. Until enough calls have been observed, a fixed initial delay is used. Only original
+ * calls that completed are observed: an original call beaten by its hedge is cancelled, and its latency, known only
+ * to exceed the hedge delay, is left out rather than recorded as the time at which it was cancelled.
+ * Hedges are only sent while they stay below a maximum ratio of the calls, which bounds the extra cost even
+ * when the provider slows down as a whole. The tokens of discarded replies are not reported.
+ *
+ * <p>The losing call is cancelled without being interrupted and runs to completion, so that a decorated model,
+ * such as an {@link AdaptiveConcurrencyChatLanguageModel}, sees its real outcome rather than an interrupted I/O
+ * failure it would count as an overload.
+ *
+ * <p>Usually created via {@link GEvalLlmParams#withHedging(double)}. This class is thread-safe.
+ */
+@Slf4j
+public final class HedgingChatLanguageModel implements ChatLanguageModel {
+
+    private static final int MIN_OBSERVED_CALLS = 20;
+
+    private final ChatLanguageModel delegate;
+    private final ChatLanguageModel hedgeModel;
+    private final double hedgePercentile;
+    private final long initialDelayNanos;
+    private final long minDelayNanos;
+    private final double maxHedgeRatio;
+    private final Executor executor;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    /**
+     * Returns a builder instance to create a {@code HedgingChatLanguageModel} object.
+     *
+     * @return a {@link HedgingChatLanguageModelBuilder} instance.
+     */
+    public static HedgingChatLanguageModelBuilder builder() {
+        return new HedgingChatLanguageModelBuilder();
+    }
+
+    /**
+     * Constructs a HedgingChatLanguageModel object with the specified parameters.
+     *
+     * @param delegate        the model receiving every call.
+     * @param hedgeModel      the model receiving hedges.
+     * @param hedgePercentile the percentile of previous latencies after which a call is hedged, between 0 and 1.
+     * @param initialDelay    the delay after which calls are hedged until enough calls have been observed.
+     * @param minDelay        the minimum delay after which a call is hedged.
+     * @param maxHedgeRatio   the maximum ratio of hedges to calls, between 0 and 1.
+     * @param executor        the executor running the calls.
+     * @throws IllegalArgumentException if {@code delegate}, {@code hedgeModel} or {@code executor} is null,
+     *                                  {@code hedgePercentile} is not strictly between 0 and 1, a delay is
+     *                                  null or negative, or {@code maxHedgeRatio} is not between 0 and 1.
+     */
+    private HedgingChatLanguageModel(
+        final ChatLanguageModel delegate,
+        final ChatLanguageModel hedgeModel,
+        final double hedgePercentile,
+        final Duration initialDelay,
+        final Duration minDelay,
+        final double maxHedgeRatio,
+        final Executor executor
+    ) {
+        if (delegate == null || hedgeModel == null) {
+            throw new IllegalArgumentException("The delegate and hedge models cannot be null.");
+        }
+
+        if (!(hedgePercentile > 0 && hedgePercentile < 1.0)) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1.");
+        }
+
+        if (initialDelay == null || initialDelay.isNegative() || minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("Hedge delays cannot be null or negative.");
+        }
+
+        if (!(maxHedgeRatio >= 0 && maxHedgeRatio <= 1.0)) {
+            throw new IllegalArgumentException("Max hedge ratio must be between 0 and 1.");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+
+        this.delegate = delegate;
+        this.hedgeModel = hedgeModel;
+        this.hedgePercentile = hedgePercentile;
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.minDelayNanos = minDelay.toNanos();
+        this.maxHedgeRatio = maxHedgeRatio;
+        this.executor = executor;
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        calls.increment();
+        final var winner = new CompletableFuture<Response<AiMessage>>();
+        final var pending = new AtomicInteger(1);
+        final var primaryCall = new Call(delegate, messages, winner, pending, true);
+        executor.execute(primaryCall);
+
+        Call hedgeCall = null;
+        try {
+            try {
+                return winner.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!winner.isDone() && tryStartHedge()) {
+                    pending.incrementAndGet();
+                    hedgeCall = new Call(hedgeModel, messages, winner, pending, false);
+                    executor.execute(hedgeCall);
+                    log.debug("Model call slower than the hedge delay, sending a hedge");
+                }
+            }
+
+            return winner.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the model", e);
+        } finally {
+            primaryCall.cancel(false);
+            if (hedgeCall != null) {
+                hedgeCall.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Counts a new hedge if hedges stay below the maximum ratio of the calls; the check and the count are atomic,
+     * so that concurrent slow calls cannot overshoot the ratio.
+     *
+     * @return {@code true} if a hedge may be sent.
+     */
+    private synchronized boolean tryStartHedge() {
+        if (hedges.sum() >= maxHedgeRatio * calls.sum()) {
+            return false;
+        }
+        hedges.increment();
+        return true;
+    }
+
+    /**
+     * Returns the delay after which a call is hedged: the configured percentile of previous latencies,
+     * or the initial delay until enough calls have been observed.
+     *
+     * @return the hedge delay in nanoseconds.
+     */
+    private long hedgeDelayNanos() {
+        final long delayNanos = latencies.count() < MIN_OBSERVED_CALLS ? initialDelayNanos : latencies.percentile(hedgePercentile);
+        return Math.max(minDelayNanos, delayNanos);
+    }
+
+    /**
+     * Returns the number of calls made through this model.
+     *
+     * @return the call count.
+     */
+    public long callCount() {
+        return calls.sum();
+    }
+
+    /**
+     * Returns the number of hedges sent.
+     *
+     * @return the hedge count.
+     */
+    public long hedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * Returns the number of calls answered by their hedge rather than by the original call.
+     *
+     * @return the hedge win count.
+     */
+    public long hedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * A call to a model, completing the shared future with the first successful reply, or with the last failure
+     * once all calls of the same request have failed.
+     */
+    private final class Call extends FutureTask<Response<AiMessage>> {
+        private final CompletableFuture<Response<AiMessage>> winner;
+        private final AtomicInteger pending;
+        private final boolean primary;
+        private final long startNanos = System.nanoTime();
+
+        /**
+         * Constructs a {@code Call}.
+         *
+         * @param model    the model to call.
+         * @param messages the messages to send.
+         * @param winner   the future completed with the first successful reply of the request.
+         * @param pending  the number of calls of the request that have not completed yet.
+         * @param primary  whether this is the original call, whose latency is recorded once completed, rather than a hedge.
+         */
+        private Call(
+            final ChatLanguageModel model,
+            final List<ChatMessage> messages,
+            final CompletableFuture<Response<AiMessage>> winner,
+            final AtomicInteger pending,
+            final boolean primary
+        ) {
+            super(() -> model.generate(messages));
+            this.winner = winner;
+            this.pending = pending;
+            this.primary = primary;
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+
+            try {
+                final var response = get();
+                recordLatency(true);
+                if (winner.complete(response) && !primary) {
+                    hedgeWins.increment();
+                }
+            } catch (ExecutionException e) {
+                recordLatency(false);
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Records the latency of this call if it is the original call of its request.
+         *
+         * @param succeeded {@code false} if the call failed.
+         */
+        private void recordLatency(final boolean succeeded) {
+            if (primary) {
+                latencies.record(System.nanoTime() - startNanos, succeeded);
+            }
+        }
+    }
+
+    /**
+     * Builder class for creating instances of {@code HedgingChatLanguageModel}.
+     */
+    public static final class HedgingChatLanguageModelBuilder {
+        private ChatLanguageModel delegate;
+        private ChatLanguageModel hedgeModel;
+        private double hedgePercentile = 0.95;
+        private Duration initialDelay = Duration.ofSeconds(5);
+        private Duration minDelay = Duration.ofMillis(50);
+        private double maxHedgeRatio = 0.05;
+        private Executor executor;
+
+        /**
+         * Builds and returns a {@code HedgingChatLanguageModel} instance.
+         *
+         * @return a new {@link HedgingChatLanguageModel} instance.
+         */
+        public HedgingChatLanguageModel build() {
+            return new HedgingChatLanguageModel(
+                delegate,
+                hedgeModel == null ? delegate : hedgeModel,
+                hedgePercentile,
+                initialDelay,
+                minDelay,
+                maxHedgeRatio,
+                executor == null ? GEvalExecutors.defaultExecutor() : executor
+            );
+        }
+
+        /**
+         * Sets the model receiving every call.
+         *
+         * @param delegate the delegate model to set.
+         * @return the current {@code HedgingChatLanguageModelBuilder} instance.
+         */
+        public HedgingChatLanguageModelBuilder delegate(final ChatLanguageModel delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * Sets the model receiving hedges, such as the same model deployed in another region.
+         *
+         * @param hedgeModel the hedge model to set; defaults to the delegate.
+         * @return the current {@code HedgingChatLanguageModelBuilder} instance.
+         */
+        public HedgingChatLanguageModelBuilder hedgeModel(final ChatLanguageModel hedgeModel) {
+            this.hedgeModel = hedgeModel;
+            return this;
+        }
+
+        /**
+         * Sets the percentile of previous latencies after which a call is hedged.
+         *
+         * @param hedgePercentile the percentile, strictly between 0 and 1; defaults to 0.95.
+         * @return the current {@code HedgingChatLanguageModelBuilder} instance.
+         */
+        public HedgingChatLanguageModelBuilder hedgePercentile(final double hedgePercentile) {
+            this.hedgePercentile = hedgePercentile;
+            return this;
+        }
+
+        /**
+         * Sets the delay after which calls are hedged until enough calls have been observed.
+         *
+         * @param initialDelay the initial hedge delay; defaults to 5 seconds.
+         * @return the current {@code HedgingChatLanguageModelBuilder} instance.
+         */
+        public HedgingChatLanguageModelBuilder initialDelay(final Duration initialDelay) {
+            this.initialDelay = initialDelay;
+            return this;
+        }
+
+        /**
+         * Sets the minimum delay after which a call is hedged.
+         *
+         * @param minDelay the minimum hedge delay; defaults to 50 milliseconds.
+         * @return the current {@code HedgingChatLanguageModelBuilder} instance.
+         */
+        public HedgingChatLanguageModelBuilder minDelay(final Duration minDelay) {
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Sets the maximum ratio of hedges to calls, bounding the extra cost of hedging.
+         *
+         * @param maxHedgeRatio the maximum hedge ratio, between 0 and 1; defaults to 0.05.
+         * @return the current {@code HedgingChatLanguageModelBuilder} instance.
+         */
+        public HedgingChatLanguageModelBuilder maxHedgeRatio(final double maxHedgeRatio) {
+            this.maxHedgeRatio = maxHedgeRatio;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the calls.
+         *
+         * @param executor the executor to set; defaults to the shared executor of {@link GEval}.
+         * @return the current {@code HedgingChatLanguageModelBuilder} instance.
+         */
+        public HedgingChatLanguageModelBuilder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code InMemoryEvaluationCache} is a bounded, least-recently-used cache of evaluation results.
+ *
+ * <p>Set on a {@link GEval} via {@link GEval.GEvalBuilder#cache(EvaluationCache)}, it avoids calling
+ * the judge model again for test cases already evaluated with the same configuration. A single instance
+ * may be shared by several {@code GEval} instances, since keys include the configuration fingerprint.
+ *
+ * <p>This class is thread-safe.
+ */
+public class InMemoryEvaluationCache implements EvaluationCache {
+
+    private final int maxSize;
+    private final Map<EvaluationCacheKey, GEvalMeasureResult> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs an {@code InMemoryEvaluationCache} holding at most {@code maxSize} results.
+     *
+     * @param maxSize the maximum number of cached results.
+     * @throws IllegalArgumentException if {@code maxSize} is not positive.
+     */
+    public InMemoryEvaluationCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maxSize must be positive");
+        }
+
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<EvaluationCacheKey, GEvalMeasureResult> eldest) {
+                if (size() > InMemoryEvaluationCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the given key, marking it as recently used.
+     *
+     * @param key the cache key.
+     * @return the cached {@link GEvalMeasureResult}, or {@code null} if absent.
+     */
+    @Override
+    public GEvalMeasureResult get(final EvaluationCacheKey key) {
+        final GEvalMeasureResult result;
+        synchronized (entries) {
+            result = entries.get(key);
+        }
+
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Caches the result for the given key, evicting the least recently used result if the cache is full.
+     *
+     * @param key    the cache key.
+     * @param result the result to cache.
+     */
+    @Override
+    public void put(final EvaluationCacheKey key, final GEvalMeasureResult result) {
+        synchronized (entries) {
+            entries.put(key, result);
+        }
+    }
+
+    /**
+     * Returns the number of cached results.
+     *
+     * @return the current size of the cache.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the number of lookups that found a cached result.
+     *
+     * @return the hit count.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no cached result.
+     *
+     * @return the miss count.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of results evicted to respect the maximum size.
+     *
+     * @return the eviction count.
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,74 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@code InMemoryGEvalMetrics} is a dependency-free {@link GEvalMetrics} keeping a lock-free latency histogram
+ * and error count per evaluation name and {@link GEvalPhase}.
+ *
+ * <p>A single instance may be shared by several {@link GEval} instances, each being reported under its own name.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final InMemoryGEvalMetrics metrics = new InMemoryGEvalMetrics();
+ * final GEval gEval = GEval.builder()
+ *     ...
+ *     .metrics(metrics)
+ *     .build();
+ *
+ * final LatencySnapshot modelCalls = metrics.snapshot("Correctness", GEvalPhase.MODEL_CALL);
+ * System.out.println("p99 judge latency: " + modelCalls.p99Nanos() + " ns");
+ * </code></pre>
+ *
+ * <p>This class is thread-safe.
+ */
+public final class InMemoryGEvalMetrics implements GEvalMetrics {
+
+    private static final GEvalPhase[] PHASES = GEvalPhase.values();
+
+    private final ConcurrentMap<String, LatencyHistogram[]> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(final String evaluationName, final GEvalPhase phase, final long durationNanos, final boolean succeeded) {
+        histograms.computeIfAbsent(evaluationName, ignored -> newHistograms())[phase.ordinal()]
+            .record(durationNanos, succeeded);
+    }
+
+    /**
+     * Takes a snapshot of the latencies of a phase of an evaluation.
+     *
+     * @param evaluationName the name of the {@link GEval}.
+     * @param phase          the phase.
+     * @return the {@link LatencySnapshot}, empty if nothing was recorded.
+     */
+    public LatencySnapshot snapshot(final String evaluationName, final GEvalPhase phase) {
+        final var evaluationHistograms = histograms.get(evaluationName);
+        return evaluationHistograms == null
+            ? new LatencyHistogram().snapshot()
+            : evaluationHistograms[phase.ordinal()].snapshot();
+    }
+
+    /**
+     * Returns the names of the evaluations recorded so far.
+     *
+     * @return an unmodifiable view of the evaluation names.
+     */
+    public Set<String> evaluationNames() {
+        return Set.copyOf(histograms.keySet());
+    }
+
+    /**
+     * Creates one empty histogram per phase.
+     *
+     * @return the histograms, indexed by phase ordinal.
+     */
+    private static LatencyHistogram[] newHistograms() {
+        final var evaluationHistograms = new LatencyHistogram[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            evaluationHistograms[i] = new LatencyHistogram();
+        }
+        return evaluationHistograms;
+    }
+}
@@ -0,0 +1,722 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code JsonlEvaluationRunner} evaluates a JSONL dataset with a {@link GEval}, streaming records in and results out,
+ * so that memory is bounded by the number of evaluations in flight rather than by the size of the dataset.
+ *
+ * <p>Every input line is a JSON object with {@code input}, {@code actual_output} and {@code expected_output} fields
+ * (camel case names are accepted too), and an optional {@code id}. Every output line is a JSON object with the
+ * zero-based {@code index} of the record, its {@code id} if any, and either the {@code result} or an {@code error}.
+ * The index of a record is its zero-based line number. Output lines are written as evaluations complete, so they are
+ * not in input order.
+ *
+ * <p>The dataset is read one line at a time and every line is parsed on its own, rather than with a single streaming
+ * {@code JsonParser} over the whole input, so that a malformed line is reported at its line number and the following
+ * records are still evaluated. This assumes that every record fits on one line of reasonable size: a line is held in
+ * memory in full, once as text and once as a JSON tree, while its evaluation is in flight.
+ *
+ * <p>Reading blocks while {@code maxInFlight} evaluations are running, which applies backpressure to the input.
+ * Lines that are not JSON objects, and records that cannot be evaluated, are reported as errors without stopping
+ * the run; blank lines are skipped.
+ *
+ * <p>When running from file to file, the results file doubles as a checkpoint: it is synced to disk after every
+ * {@code syncEvery} results, or at the first result written {@code syncInterval} after the last sync. With
+ * {@code resume} enabled, a run appends to an existing results file, dropping a torn last line, and skips the records
+ * that already have a result there; records that previously failed are evaluated again, their new line superseding
+ * the error line. Records are matched on their {@code id}, so the dataset may be reordered or extended between runs,
+ * and only records without an {@code id} are matched on their line number. Ids are therefore expected to be unique.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final JsonlEvaluationRunner runner = JsonlEvaluationRunner.builder()
+ *     .gEval(gEval)
+ *     .objectMapper(objectMapper)
+ *     .maxInFlight(32)
+ *     .build();
+ *
+ * final EvaluationRunSummary summary = runner.run(Path.of("dataset.jsonl"), Path.of("results.jsonl"));
+ * </code></pre>
+ */
+@Slf4j
+public final class JsonlEvaluationRunner {
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 16;
+    private static final int DEFAULT_SYNC_EVERY = 256;
+    private static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofSeconds(1);
+    private static final int TAIL_CHUNK_SIZE = 8192;
+
+    private final GEval gEval;
+    private final ObjectMapper objectMapper;
+    private final int maxInFlight;
+    private final boolean resume;
+    private final int syncEvery;
+    private final long syncIntervalNanos;
+
+    /**
+     * Returns a builder instance to create a {@code JsonlEvaluationRunner} object.
+     *
+     * @return a {@link JsonlEvaluationRunnerBuilder} instance.
+     */
+    public static JsonlEvaluationRunnerBuilder builder() {
+        return new JsonlEvaluationRunnerBuilder();
+    }
+
+    /**
+     * Constructs a JsonlEvaluationRunner object with the specified parameters.
+     *
+     * @param gEval        the evaluation applied to every record.
+     * @param objectMapper the JSON object mapper reading records and writing results.
+     * @param maxInFlight  the maximum number of concurrent evaluations.
+     * @param resume       whether file runs skip the records already evaluated in the results file.
+     * @param syncEvery    the maximum number of results written between two syncs of the results file.
+     * @param syncInterval the maximum time between two syncs of the results file, while results are written.
+     * @throws IllegalArgumentException if {@code gEval} or {@code objectMapper} is null, {@code maxInFlight}
+     *                                  or {@code syncEvery} is not positive, or {@code syncInterval} is null
+     *                                  or negative.
+     */
+    private JsonlEvaluationRunner(
+        final GEval gEval,
+        final ObjectMapper objectMapper,
+        final int maxInFlight,
+        final boolean resume,
+        final int syncEvery,
+        final Duration syncInterval
+    ) {
+        if (gEval == null) {
+            throw new IllegalArgumentException("The gEval cannot be null");
+        }
+
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("The objectMapper cannot be null");
+        }
+
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Max in-flight evaluations must be positive.");
+        }
+
+        if (syncEvery < 1) {
+            throw new IllegalArgumentException("Sync batch size must be positive.");
+        }
+
+        if (syncInterval == null || syncInterval.isNegative()) {
+            throw new IllegalArgumentException("Sync interval cannot be null or negative.");
+        }
+
+        this.gEval = gEval;
+        this.objectMapper = objectMapper;
+        this.maxInFlight = maxInFlight;
+        this.resume = resume;
+        this.syncEvery = syncEvery;
+        this.syncIntervalNanos = syncInterval.toNanos();
+    }
+
+    /**
+     * Evaluates the records of the input file and writes the results to the output file, syncing it to disk
+     * in batches.
+     *
+     * <p>The output file is replaced, unless resuming, in which case results are appended to it and the records
+     * it already holds results for are skipped.
+     *
+     * @param input  the JSONL dataset.
+     * @param output the JSONL results file.
+     * @return the {@link EvaluationRunSummary} of the run.
+     * @throws IOException           if the dataset cannot be read or the results cannot be read or written.
+     * @throws IllegalStateException if the calling thread is interrupted while waiting for a free slot.
+     */
+    public EvaluationRunSummary run(final Path input, final Path output) throws IOException {
+        final var completed = resume && Files.exists(output) ? readCompleted(output) : Checkpoint.EMPTY;
+        try (var inputStream = Files.newInputStream(input);
+             var channel = resume
+                 ? FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+                 : FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (completed.size() > 0) {
+                log.info("Resuming evaluation - {} from {}, skipping {} evaluated records", gEval.name(), output, completed.size());
+            }
+            final var writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+            return run(inputStream, writer, channel, completed);
+        }
+    }
+
+    /**
+     * Evaluates the records of the input stream and writes the results to the output stream.
+     *
+     * <p>Neither stream is closed; the output is flushed once all evaluations have completed.
+     *
+     * @param input  the JSONL dataset.
+     * @param output the stream receiving the JSONL results.
+     * @return the {@link EvaluationRunSummary} of the run.
+     * @throws IOException           if the dataset cannot be read, or the results cannot be written.
+     * @throws IllegalStateException if the calling thread is interrupted while waiting for a free slot.
+     */
+    public EvaluationRunSummary run(final InputStream input, final OutputStream output) throws IOException {
+        final var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        return run(input, writer, null, Checkpoint.EMPTY);
+    }
+
+    /**
+     * Evaluates the records of the input stream that are not completed yet, and writes their results.
+     *
+     * @param input       the JSONL dataset.
+     * @param writer      the writer of result lines.
+     * @param syncChannel the channel synced to disk in batches, or {@code null} to only flush at the end.
+     * @param completed   the records to skip.
+     * @return the {@link EvaluationRunSummary} of the run.
+     * @throws IOException if the dataset cannot be read, or the results cannot be written.
+     */
+    private EvaluationRunSummary run(
+        final InputStream input,
+        final Writer writer,
+        final FileChannel syncChannel,
+        final Checkpoint completed
+    ) throws IOException {
+        log.debug("Running evaluation - {} over a JSONL dataset with at most {} in flight", gEval.name(), maxInFlight);
+
+        final var run = new Run(writer, syncChannel);
+        final long skipped;
+        try {
+            skipped = submitAll(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), run, completed);
+        } catch (IOException | RuntimeException e) {
+            run.finish(e);
+            throw e;
+        }
+        run.finish(null);
+
+        final var writeFailure = run.writeFailure.get();
+        if (writeFailure instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (writeFailure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+
+        final var summary = new EvaluationRunSummary(
+            run.evaluated.sum(),
+            run.passed.sum(),
+            run.failed.sum(),
+            skipped,
+            new EvaluationTokenUsage(run.inputTokens.sum(), run.outputTokens.sum())
+        );
+        log.debug("Successfully ran evaluation - {} over a JSONL dataset, summary - {}", gEval.name(), summary);
+        return summary;
+    }
+
+    /**
+     * Reads the dataset line by line and starts the evaluation of every record that is not completed yet,
+     * until the end of the dataset or the first write failure.
+     *
+     * @param reader    the reader of the JSONL dataset, which is not closed.
+     * @param run       the state of the run.
+     * @param completed the records to skip.
+     * @return the number of skipped records.
+     * @throws IOException if the dataset cannot be read.
+     */
+    private long submitAll(final BufferedReader reader, final Run run, final Checkpoint completed) throws IOException {
+        long skipped = 0;
+        long index = 0;
+        for (var line = reader.readLine(); line != null && run.writeFailure.get() == null; line = reader.readLine(), index++) {
+            if (line.isBlank()) {
+                continue;
+            }
+
+            JsonNode record = null;
+            Exception unreadable = null;
+            try {
+                record = readRecord(line);
+            } catch (IOException | IllegalArgumentException e) {
+                unreadable = e;
+            }
+            if (record != null && completed.contains(index, record)) {
+                skipped++;
+                continue;
+            }
+
+            run.acquire();
+            if (unreadable != null) {
+                complete(run, index, null, null, unreadable);
+            } else {
+                submit(run, index, record);
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Parses a line of the dataset into a JSON record.
+     *
+     * @param line the JSON line of the record.
+     * @return the JSON record.
+     * @throws IOException              if the line is not valid JSON.
+     * @throws IllegalArgumentException if the line is not a JSON object.
+     */
+    private JsonNode readRecord(final String line) throws IOException {
+        final var record = objectMapper.readTree(line);
+        if (!record.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object, found " + record.getNodeType());
+        }
+        return record;
+    }
+
+    /**
+     * Starts the evaluation of a record; its slot is released once its result line is written.
+     *
+     * @param run    the state of the run.
+     * @param index  the zero-based line number of the record in the dataset.
+     * @param record the JSON record.
+     */
+    private void submit(final Run run, final long index, final JsonNode record) {
+        final LLMTestCase llmTestCase;
+        try {
+            llmTestCase = toTestCase(record);
+        } catch (IllegalArgumentException e) {
+            complete(run, index, record, null, e);
+            return;
+        }
+
+        gEval.measureAsync(llmTestCase).whenComplete((result, failure) -> complete(run, index, record, result, failure));
+    }
+
+    /**
+     * Records the outcome of a record, writes its result line and releases its slot.
+     *
+     * <p>A result that cannot be serialized is reported as an error line instead.
+     *
+     * @param run     the state of the run.
+     * @param index   the zero-based line number of the record in the dataset.
+     * @param record  the JSON record, or {@code null} if the line could not be read.
+     * @param result  the evaluation result, or {@code null} if the record failed.
+     * @param failure the cause of the failure, or {@code null} if the record was evaluated.
+     */
+    private void complete(
+        final Run run,
+        final long index,
+        final JsonNode record,
+        final GEvalMeasureResult result,
+        final Throwable failure
+    ) {
+        try {
+            var evaluatedResult = result;
+            var cause = failure == null ? null : GEval.unwrap(failure);
+            String line;
+            try {
+                line = resultLine(index, record, evaluatedResult, cause);
+            } catch (IOException | RuntimeException e) {
+                evaluatedResult = null;
+                cause = e;
+                line = resultLine(index, record, null, e);
+            }
+
+            if (evaluatedResult != null) {
+                run.evaluated.increment();
+                if (evaluatedResult.passed()) {
+                    run.passed.increment();
+                }
+                run.inputTokens.add(evaluatedResult.tokenUsage().inputTokenCount());
+                run.outputTokens.add(evaluatedResult.tokenUsage().outputTokenCount());
+            } else {
+                log.warn("Evaluation of record {} failed via - {}", index, gEval.name(), cause);
+                run.failed.increment();
+            }
+            run.write(line);
+        } catch (IOException | RuntimeException e) {
+            run.writeFailure.compareAndSet(null, e);
+        } finally {
+            run.release();
+        }
+    }
+
+    /**
+     * Serializes the result line of a record.
+     *
+     * @param index  the zero-based line number of the record in the dataset.
+     * @param record the JSON record, or {@code null} if the line could not be read.
+     * @param result the evaluation result, or {@code null} if the record failed.
+     * @param cause  the cause of the failure, or {@code null} if the record was evaluated.
+     * @return the JSON result line, without line separator.
+     * @throws IOException if the line cannot be serialized.
+     */
+    private String resultLine(
+        final long index,
+        final JsonNode record,
+        final GEvalMeasureResult result,
+        final Throwable cause
+    ) throws IOException {
+        final var line = objectMapper.createObjectNode().put("index", index);
+        if (record != null && record.hasNonNull("id")) {
+            line.set("id", record.get("id"));
+        }
+
+        if (result != null) {
+            line.set("result", objectMapper.valueToTree(result));
+        } else {
+            line.put("error", String.valueOf(cause.getMessage()));
+        }
+        return objectMapper.writeValueAsString(line);
+    }
+
+    /**
+     * Reads the records that have a result in an existing results file, after truncating a torn last line left
+     * by an interrupted run. Unreadable lines are ignored, so their records are evaluated again.
+     *
+     * @param output the JSONL results file.
+     * @return the {@link Checkpoint} of the evaluated records.
+     * @throws IOException if the results file cannot be read or truncated.
+     */
+    private Checkpoint readCompleted(final Path output) throws IOException {
+        try (var channel = FileChannel.open(output, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long validLength = lastLineEnd(channel);
+            if (validLength < channel.size()) {
+                log.warn("Truncating torn result line at offset {} of {}", validLength, output);
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+        }
+
+        final Set<String> ids = new HashSet<>();
+        final var indexes = new BitSet();
+        try (var reader = Files.newBufferedReader(output, StandardCharsets.UTF_8)) {
+            for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                final JsonNode result;
+                try {
+                    result = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    log.warn("Ignoring unreadable result line in {}", output, e);
+                    continue;
+                }
+                if (!result.has("result")) {
+                    continue;
+                }
+                final long index = result.path("index").asLong(-1);
+                if (result.hasNonNull("id")) {
+                    ids.add(result.get("id").toString());
+                } else if (index >= 0 && index <= Integer.MAX_VALUE) {
+                    indexes.set((int) index);
+                }
+            }
+        }
+        return new Checkpoint(ids, indexes);
+    }
+
+    /**
+     * Finds the end of the last complete line of a file, scanning backwards from its end.
+     *
+     * @param channel the channel of the file.
+     * @return the length of the file up to and including its last line separator, or {@code 0} if it has none.
+     * @throws IOException if the file cannot be read.
+     */
+    private static long lastLineEnd(final FileChannel channel) throws IOException {
+        final var buffer = ByteBuffer.allocate(TAIL_CHUNK_SIZE);
+        long end = channel.size();
+        while (end > 0) {
+            final long start = Math.max(0, end - TAIL_CHUNK_SIZE);
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file while scanning for the last line");
+                }
+            }
+            for (int i = buffer.limit() - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Converts a JSON record into a test case.
+     *
+     * @param record the JSON record.
+     * @return the {@link LLMTestCase}.
+     * @throws IllegalArgumentException if a field is missing or blank.
+     */
+    private static LLMTestCase toTestCase(final JsonNode record) {
+        return new LLMTestCase(
+            text(record, "input", "input"),
+            text(record, "actual_output", "actualOutput"),
+            text(record, "expected_output", "expectedOutput")
+        );
+    }
+
+    /**
+     * Reads a text field of a record, under its snake case or camel case name.
+     *
+     * @param record    the JSON record.
+     * @param snakeCase the snake case field name.
+     * @param camelCase the camel case field name.
+     * @return the text of the field, or {@code null} if absent.
+     */
+    private static String text(final JsonNode record, final String snakeCase, final String camelCase) {
+        final var node = record.hasNonNull(snakeCase) ? record.get(snakeCase) : record.get(camelCase);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    /**
+     * The records evaluated by a previous run: those with an {@code id} are identified by it, the others by
+     * their line number.
+     *
+     * @param ids     the JSON representations of the ids of the evaluated records.
+     * @param indexes the zero-based line numbers of the evaluated records without an id.
+     */
+    private record Checkpoint(Set<String> ids, BitSet indexes) {
+
+        private static final Checkpoint EMPTY = new Checkpoint(Set.of(), new BitSet());
+
+        /**
+         * Indicates whether a record of the dataset was evaluated by the previous run.
+         *
+         * @param index  the zero-based line number of the record in the dataset.
+         * @param record the JSON record.
+         * @return {@code true} if the record has a result in the results file.
+         */
+        private boolean contains(final long index, final JsonNode record) {
+            if (record.hasNonNull("id")) {
+                return ids.contains(record.get("id").toString());
+            }
+            return index <= Integer.MAX_VALUE && indexes.get((int) index);
+        }
+
+        /**
+         * Returns the number of evaluated records.
+         *
+         * @return the number of evaluated records.
+         */
+        private int size() {
+            return ids.size() + indexes.cardinality();
+        }
+    }
+
+    /**
+     * The mutable state of a single run, shared by the reading thread and the completing evaluations.
+     */
+    private final class Run {
+        private final Writer writer;
+        private final FileChannel syncChannel;
+        private final Semaphore permits = new Semaphore(maxInFlight);
+        private final AtomicReference<Exception> writeFailure = new AtomicReference<>();
+        private final LongAdder evaluated = new LongAdder();
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder inputTokens = new LongAdder();
+        private final LongAdder outputTokens = new LongAdder();
+        private int unsyncedLines;
+        private long lastSyncNanos = System.nanoTime();
+
+        /**
+         * Constructs the state of a run.
+         *
+         * @param writer      the writer of result lines.
+         * @param syncChannel the channel synced to disk in batches, or {@code null} to only flush.
+         */
+        private Run(final Writer writer, final FileChannel syncChannel) {
+            this.writer = writer;
+            this.syncChannel = syncChannel;
+        }
+
+        /**
+         * Waits for a free evaluation slot.
+         *
+         * @throws IllegalStateException if the calling thread is interrupted.
+         */
+        private void acquire() {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running evaluation " + gEval.name(), e);
+            }
+        }
+
+        /**
+         * Releases an evaluation slot.
+         */
+        private void release() {
+            permits.release();
+        }
+
+        /**
+         * Waits until all started evaluations have completed.
+         *
+         * @throws IllegalStateException if the calling thread is interrupted.
+         */
+        private void awaitAll() {
+            try {
+                permits.acquire(maxInFlight);
+                permits.release(maxInFlight);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running evaluation " + gEval.name(), e);
+            }
+        }
+
+        /**
+         * Waits until all started evaluations have completed, then flushes and syncs the written lines, so that
+         * the results written so far are kept even when the run fails.
+         *
+         * @param pending the failure of the run, to which a sync failure is added as suppressed, or {@code null}.
+         * @throws IOException if the lines cannot be flushed or synced, and {@code pending} is null.
+         */
+        private void finish(final Exception pending) throws IOException {
+            try {
+                awaitAll();
+            } finally {
+                try {
+                    sync();
+                } catch (IOException e) {
+                    if (pending == null) {
+                        throw e;
+                    }
+                    pending.addSuppressed(e);
+                }
+            }
+        }
+
+        /**
+         * Writes a result line.
+         *
+         * @param line the JSON result, without line separator.
+         * @throws IOException if the line cannot be written.
+         */
+        private synchronized void write(final String line) throws IOException {
+            writer.write(line);
+            writer.write('\n');
+            if (syncChannel != null
+                && (++unsyncedLines >= syncEvery || System.nanoTime() - lastSyncNanos >= syncIntervalNanos)) {
+                sync();
+            }
+        }
+
+        /**
+         * Flushes the written lines and, if writing to a file, forces them to disk.
+         *
+         * @throws IOException if the lines cannot be flushed or synced.
+         */
+        private synchronized void sync() throws IOException {
+            writer.flush();
+            if (syncChannel != null) {
+                syncChannel.force(false);
+            }
+            unsyncedLines = 0;
+            lastSyncNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Builder class for creating instances of {@code JsonlEvaluationRunner}.
+     */
+    public static final class JsonlEvaluationRunnerBuilder {
+        private GEval gEval;
+        private ObjectMapper objectMapper;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private boolean resume;
+        private int syncEvery = DEFAULT_SYNC_EVERY;
+        private Duration syncInterval = DEFAULT_SYNC_INTERVAL;
+
+        /**
+         * Builds and returns a {@code JsonlEvaluationRunner} instance.
+         *
+         * @return a new {@link JsonlEvaluationRunner} instance.
+         */
+        public JsonlEvaluationRunner build() {
+            return new JsonlEvaluationRunner(gEval, objectMapper, maxInFlight, resume, syncEvery, syncInterval);
+        }
+
+        /**
+         * Sets the evaluation applied to every record.
+         *
+         * @param gEval the evaluation to set.
+         * @return the current {@code JsonlEvaluationRunnerBuilder} instance.
+         */
+        public JsonlEvaluationRunnerBuilder gEval(final GEval gEval) {
+            this.gEval = gEval;
+            return this;
+        }
+
+        /**
+         * Sets the JSON object mapper reading records and writing results.
+         *
+         * @param objectMapper the object mapper to set.
+         * @return the current {@code JsonlEvaluationRunnerBuilder} instance.
+         */
+        public JsonlEvaluationRunnerBuilder objectMapper(final ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent evaluations, which also bounds the records held in memory.
+         *
+         * @param maxInFlight the maximum number of concurrent evaluations; defaults to 16.
+         * @return the current {@code JsonlEvaluationRunnerBuilder} instance.
+         */
+        public JsonlEvaluationRunnerBuilder maxInFlight(final int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets whether file runs resume from an existing results file, skipping the records evaluated there.
+         *
+         * @param resume {@code true} to resume; defaults to {@code false}, which replaces the results file.
+         * @return the current {@code JsonlEvaluationRunnerBuilder} instance.
+         */
+        public JsonlEvaluationRunnerBuilder resume(final boolean resume) {
+            this.resume = resume;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of results written to a results file between two syncs to disk.
+         *
+         * @param syncEvery the sync batch size; defaults to 256.
+         * @return the current {@code JsonlEvaluationRunnerBuilder} instance.
+         */
+        public JsonlEvaluationRunnerBuilder syncEvery(final int syncEvery) {
+            this.syncEvery = syncEvery;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time between two syncs of a results file to disk, while results are written.
+         *
+         * @param syncInterval the sync interval; defaults to 1 second.
+         * @return the current {@code JsonlEvaluationRunnerBuilder} instance.
+         */
+        public JsonlEvaluationRunnerBuilder syncInterval(final Duration syncInterval) {
+            this.syncInterval = syncInterval;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.langchain4j.model.chat.ChatLanguageModel;
+
+/**
+ * {@code JudgeCascade} is an ordered list of judge models, from the cheapest to the most capable, where a test case
+ * is escalated to the next tier only while its score lies within the uncertainty band of the current tier.
+ *
+ * <p>Scores far from the threshold decide the pass/fail outcome whichever model gives them, so most test cases
+ * can be judged by a small, fast model, leaving the expensive model to borderline ones. The last tier always
+ * decides. The result of an escalated test case is the result of the last tier asked, while its token usage
+ * covers every tier asked.
+ *
+ * <p>A single cascade may be shared by several {@link GEval} instances; its counters then aggregate over all of them.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final JudgeCascade cascade = JudgeCascade.builder()
+ *     .tier(smallChatLanguageModel, 0.15)
+ *     .tier(largeChatLanguageModel, 0.0)
+ *     .build();
+ * final GEval gEval = GEval.builder()
+ *     ...
+ *     .cascade(cascade)
+ *     .build();
+ * </code></pre>
+ */
+public final class JudgeCascade {
+
+    private final List<JudgeTier> tiers;
+    private final LongAdder[] decided;
+
+    /**
+     * Returns a builder instance to create a {@code JudgeCascade} object.
+     *
+     * @return a {@link JudgeCascadeBuilder} instance.
+     */
+    public static JudgeCascadeBuilder builder() {
+        return new JudgeCascadeBuilder();
+    }
+
+    /**
+     * Returns a cascade made of a single judge model, which decides every test case.
+     *
+     * @param chatLanguageModel the judge model.
+     * @param modelName         the name identifying the judge model in cache keys, or {@code null}.
+     * @return a single-tier {@code JudgeCascade}.
+     */
+    static JudgeCascade single(final ChatLanguageModel chatLanguageModel, final String modelName) {
+        return new JudgeCascade(List.of(new JudgeTier(chatLanguageModel, modelName, 0.0)));
+    }
+
+    /**
+     * Constructs a {@code JudgeCascade}.
+     *
+     * @param tiers the judge tiers, from the cheapest to the most capable.
+     * @throws IllegalArgumentException if {@code tiers} is null or empty.
+     */
+    private JudgeCascade(final List<JudgeTier> tiers) {
+        if (tiers == null || tiers.isEmpty()) {
+            throw new IllegalArgumentException("Judge tiers cannot be null or empty.");
+        }
+
+        this.tiers = List.copyOf(tiers);
+        this.decided = new LongAdder[tiers.size()];
+        for (int i = 0; i < decided.length; i++) {
+            decided[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the number of tiers.
+     *
+     * @return the tier count.
+     */
+    public int size() {
+        return tiers.size();
+    }
+
+    /**
+     * Returns the judge model of the given tier.
+     *
+     * @param tier the tier, starting at 0 for the cheapest.
+     * @return the judge model.
+     */
+    ChatLanguageModel chatLanguageModel(final int tier) {
+        return tiers.get(tier).chatLanguageModel();
+    }
+
+    /**
+     * Decides whether a score given by the given tier is escalated to the next tier, and otherwise counts
+     * the test case as decided by that tier.
+     *
+     * @param tier      the tier that gave the score.
+     * @param score     the normalized score, between 0 and 1.
+     * @param threshold the minimum score for the test case to pass.
+     * @return {@code true} if the next tier must judge the test case.
+     */
+    boolean escalates(final int tier, final double score, final double threshold) {
+        if (tier < tiers.size() - 1 && Math.abs(score - threshold) <= tiers.get(tier).uncertaintyBand()) {
+            return true;
+        }
+
+        decided[tier].increment();
+        return false;
+    }
+
+    /**
+     * Returns the number of test cases decided by the given tier.
+     *
+     * @param tier the tier, starting at 0 for the cheapest.
+     * @return the decided count of the tier.
+     * @throws IndexOutOfBoundsException if {@code tier} is not a tier of this cascade.
+     */
+    public long decidedCount(final int tier) {
+        return decided[tier].sum();
+    }
+
+    /**
+     * Returns the number of test cases escalated past the first tier.
+     *
+     * @return the escalated count.
+     */
+    public long escalatedCount() {
+        long escalated = 0;
+        for (int i = 1; i < decided.length; i++) {
+            escalated += decided[i].sum();
+        }
+        return escalated;
+    }
+
+    /**
+     * Describes the tiers by model name and uncertainty band, identifying the cascade in cache keys.
+     *
+     * @return the description of the cascade.
+     */
+    String modelName() {
+        if (tiers.size() == 1) {
+            return tiers.get(0).modelName();
+        }
+
+        final var stringBuilder = new StringBuilder();
+        for (final var tier : tiers) {
+            if (!stringBuilder.isEmpty()) {
+                stringBuilder.append(" > ");
+            }
+            stringBuilder.append(tier.modelName()).append(" +/- ").append(tier.uncertaintyBand());
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Tells whether every tier has an explicit model name, rather than the class name of its model.
+     *
+     * @return {@code true} if the models of all tiers are named.
+     */
+    boolean namesModels() {
+        for (final var tier : tiers) {
+            if (tier.modelName().equals(tier.chatLanguageModel().getClass().getName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builder class for creating instances of {@code JudgeCascade}.
+     */
+    public static final class JudgeCascadeBuilder {
+        private final List<JudgeTier> tiers = new ArrayList<>();
+
+        /**
+         * Builds and returns a {@code JudgeCascade} instance.
+         *
+         * @return a new {@link JudgeCascade} instance.
+         * @throws IllegalArgumentException if no tier is added.
+         */
+        public JudgeCascade build() {
+            return new JudgeCascade(tiers);
+        }
+
+        /**
+         * Adds a tier after the tiers added so far.
+         *
+         * @param chatLanguageModel the judge model of the tier.
+         * @param uncertaintyBand   the maximum distance between a score and the threshold for the test case
+         *                          to be escalated, between 0 and 1; ignored for the last tier.
+         * @return the current {@code JudgeCascadeBuilder} instance.
+         * @throws IllegalArgumentException if {@code chatLanguageModel} is null, or {@code uncertaintyBand}
+         *                                  is not between 0 and 1.
+         */
+        public JudgeCascadeBuilder tier(final ChatLanguageModel chatLanguageModel, final double uncertaintyBand) {
+            return tier(new JudgeTier(chatLanguageModel, null, uncertaintyBand));
+        }
+
+        /**
+         * Adds a tier after the tiers added so far.
+         *
+         * @param judgeTier the tier to add.
+         * @return the current {@code JudgeCascadeBuilder} instance.
+         * @throws IllegalArgumentException if {@code judgeTier} is null.
+         */
+        public JudgeCascadeBuilder tier(final JudgeTier judgeTier) {
+            if (judgeTier == null) {
+                throw new IllegalArgumentException("The judgeTier cannot be null");
+            }
+            tiers.add(judgeTier);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import dev.langchain4j.model.chat.ChatLanguageModel;
+
+/**
+ * {@code JudgeTier} is one judge model of a {@link JudgeCascade}, with the band around the threshold
+ * within which its scores are escalated to the next tier.
+ *
+ * @param chatLanguageModel the judge model of this tier; cannot be null
+ * @param modelName         the name identifying the judge model in cache keys; defaults to its class name
+ * @param uncertaintyBand   the maximum distance between a score and the threshold for the test case to be escalated,
+ *                          between 0 and 1; ignored for the last tier
+ */
+public record JudgeTier(
+    ChatLanguageModel chatLanguageModel,
+    String modelName,
+    double uncertaintyBand
+) {
+
+    /**
+     * Constructs a new {@code JudgeTier} instance, defaulting the model name to the class name of the model.
+     *
+     * @param chatLanguageModel the judge model of this tier
+     * @param modelName         the name identifying the judge model in cache keys, or {@code null}
+     * @param uncertaintyBand   the maximum distance between a score and the threshold for the test case to be escalated
+     * @throws IllegalArgumentException if {@code chatLanguageModel} is null, or {@code uncertaintyBand} is not between 0 and 1
+     */
+    public JudgeTier {
+        if (chatLanguageModel == null) {
+            throw new IllegalArgumentException("The chatLanguageModel cannot be null");
+        }
+        if (!(uncertaintyBand >= 0 && uncertaintyBand <= 1.0)) {
+            throw new IllegalArgumentException("The uncertaintyBand must be between 0 and 1");
+        }
+        modelName = modelName == null ? chatLanguageModel.getClass().getName() : modelName;
+    }
+}
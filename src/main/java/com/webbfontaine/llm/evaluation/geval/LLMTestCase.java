@@ -46,6 +46,33 @@ public class LLMTestCase {
         this.expectedOutput = expectedOutput;
     }
 
+    /**
+     * Returns the input provided to the language model.
+     *
+     * @return the input.
+     */
+    public String input() {
+        return input;
+    }
+
+    /**
+     * Returns the actual output produced by the language model.
+     *
+     * @return the actual output.
+     */
+    public String actualOutput() {
+        return actualOutput;
+    }
+
+    /**
+     * Returns the expected output.
+     *
+     * @return the expected output.
+     */
+    public String expectedOutput() {
+        return expectedOutput;
+    }
+
     /**
      * Generates a formatted string representation of the test case.
      *
@@ -55,7 +82,7 @@ public class LLMTestCase {
      * @return a formatted string containing the input, actual output, and expected output.
      */
     public String generateText() {
-        return String.format("Input:\n%s\n\nActual Output:\n%s\n\nExpected Output:\n%s\n\n", input, actualOutput, expectedOutput);
+        return "Input:\n" + input + "\n\nActual Output:\n" + actualOutput + "\n\nExpected Output:\n" + expectedOutput + "\n\n";
     }
 
 }
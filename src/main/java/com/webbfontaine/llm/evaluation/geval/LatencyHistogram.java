@@ -0,0 +1,139 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code LatencyHistogram} is a lock-free, log-linear histogram of durations in nanoseconds.
+ *
+ * <p>Every power of two is split into eight linear sub-buckets, so that any duration is counted in a bucket
+ * whose bounds are within 12.5% of each other, from nanoseconds to days, with a fixed array of counters.
+ * Recording is wait-free apart from the maximum; snapshots are consistent only when no recording is in progress.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a duration.
+     *
+     * @param durationNanos the duration, in nanoseconds; negative durations are counted as zero.
+     * @param succeeded     {@code false} if the timed phase failed.
+     */
+    void record(final long durationNanos, final boolean succeeded) {
+        final long nanos = Math.max(0, durationNanos);
+        counts.incrementAndGet(bucketIndex(nanos));
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (!succeeded) {
+            errorCount.increment();
+        }
+    }
+
+    /**
+     * Takes a snapshot of the recorded durations.
+     *
+     * @return the {@link LatencySnapshot}.
+     */
+    LatencySnapshot snapshot() {
+        final long total = count.sum();
+        final long max = maxNanos.get();
+        return new LatencySnapshot(
+            total,
+            errorCount.sum(),
+            total == 0 ? 0 : (double) totalNanos.sum() / total,
+            percentile(0.50, max),
+            percentile(0.90, max),
+            percentile(0.99, max),
+            max
+        );
+    }
+
+    /**
+     * Computes an approximate percentile of the recorded durations.
+     *
+     * @param quantile the quantile, between 0 and 1.
+     * @return the approximate percentile, or 0 if nothing was recorded.
+     */
+    long percentile(final double quantile) {
+        return percentile(quantile, maxNanos.get());
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the count.
+     */
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * Computes an approximate percentile as the upper bound of the bucket holding it.
+     *
+     * @param quantile the quantile, between 0 and 1.
+     * @param max      the maximum recorded duration, capping the result.
+     * @return the approximate percentile, or 0 if nothing was recorded.
+     */
+    private long percentile(final double quantile, final long max) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(max, bucketUpperBound(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Returns the index of the bucket counting the given duration.
+     *
+     * @param nanos the non-negative duration.
+     * @return the bucket index.
+     */
+    static int bucketIndex(final long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest duration counted by the given bucket.
+     *
+     * @param index the bucket index.
+     * @return the inclusive upper bound of the bucket.
+     */
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        final long subBucket = index % SUB_BUCKETS;
+        final long width = 1L << (exponent - SUB_BUCKET_BITS);
+        final long lowerBound = (SUB_BUCKETS + subBucket) * width;
+        return lowerBound > Long.MAX_VALUE - width ? Long.MAX_VALUE : lowerBound + width - 1;
+    }
+}
@@ -0,0 +1,34 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code LatencySnapshot} is a point-in-time view of the latencies of a phase recorded by {@link InMemoryGEvalMetrics}.
+ *
+ * <p>Percentiles are approximate: they are the upper bound of their histogram bucket, within 12.5% of the exact value.
+ *
+ * @param count      the number of recorded phases.
+ * @param errorCount the number of recorded phases that failed.
+ * @param meanNanos  the mean duration, in nanoseconds.
+ * @param p50Nanos   the approximate median duration, in nanoseconds.
+ * @param p90Nanos   the approximate 90th percentile duration, in nanoseconds.
+ * @param p99Nanos   the approximate 99th percentile duration, in nanoseconds.
+ * @param maxNanos   the maximum duration, in nanoseconds.
+ */
+public record LatencySnapshot(
+    long count,
+    long errorCount,
+    double meanNanos,
+    long p50Nanos,
+    long p90Nanos,
+    long p99Nanos,
+    long maxNanos
+) {
+
+    /**
+     * Returns the fraction of recorded phases that failed.
+     *
+     * @return the error rate, between 0 and 1, or 0 if nothing was recorded.
+     */
+    public double errorRate() {
+        return count == 0 ? 0 : (double) errorCount / count;
+    }
+}
@@ -0,0 +1,167 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * {@code LenientEvaluationResponseParser} recovers an {@link EvaluationResponse} from judge replies that are
+ * not strictly the expected JSON object, so that they need not be sent to the model again.
+ *
+ * <p>It tolerates:
+ * <ul>
+ *   <li>text around the JSON object, such as markdown code fences or a preamble;</li>
+ *   <li>trailing commas, single-quoted strings and unquoted field names;</li>
+ *   <li>scores given as strings, such as {@code "8"} or {@code "8/10"}.</li>
+ * </ul>
+ */
+final class LenientEvaluationResponseParser {
+
+    private static final Pattern LEADING_NUMBER = Pattern.compile("^\\s*(-?\\d+(?:\\.\\d+)?)");
+
+    private final ObjectReader reader;
+
+    /**
+     * Constructs a {@code LenientEvaluationResponseParser}.
+     *
+     * @param objectMapper the JSON object mapper to derive a lenient reader from.
+     */
+    LenientEvaluationResponseParser(final ObjectMapper objectMapper) {
+        this.reader = objectMapper.reader().withFeatures(
+            JsonReadFeature.ALLOW_TRAILING_COMMA,
+            JsonReadFeature.ALLOW_SINGLE_QUOTES,
+            JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES
+        );
+    }
+
+    /**
+     * Parses the first balanced JSON object of the message that holds a usable score.
+     *
+     * @param message the judge reply.
+     * @return the recovered {@link EvaluationResponse}, or {@code null} if none could be recovered.
+     */
+    EvaluationResponse parse(final String message) {
+        final var node = readFirst(message, '{', '}', candidate -> toEvaluationResponse(candidate) != null);
+        return node == null ? null : toEvaluationResponse(node);
+    }
+
+    /**
+     * Reads the first balanced JSON value of the message, delimited by the given brackets, that is accepted
+     * by the given predicate. A candidate left unbalanced, for example by a stray bracket or apostrophe in prose,
+     * is skipped in favor of the next one.
+     *
+     * @param message the judge reply.
+     * @param open    the opening bracket, {@code '{'} for objects or {@code '['} for arrays.
+     * @param close   the closing bracket, {@code '}'} for objects or {@code ']'} for arrays.
+     * @param accept  the predicate a candidate value must satisfy.
+     * @return the first accepted {@link JsonNode}, or {@code null} if none could be read.
+     */
+    JsonNode readFirst(final String message, final char open, final char close, final Predicate<JsonNode> accept) {
+        if (message == null) {
+            return null;
+        }
+
+        for (int start = message.indexOf(open); start >= 0; start = message.indexOf(open, start + 1)) {
+            final int end = findBalancedEnd(message, start, open, close);
+            if (end < 0) {
+                continue;
+            }
+
+            final var node = read(message.substring(start, end + 1));
+            if (node != null && accept.test(node)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the closing bracket balancing the opening bracket at {@code start}, skipping brackets within strings.
+     *
+     * @param text  the text to scan.
+     * @param start the index of the opening bracket.
+     * @param open  the opening bracket character.
+     * @param close the closing bracket character.
+     * @return the index of the balancing closing bracket, or {@code -1} if the brackets are not balanced.
+     */
+    static int findBalancedEnd(final String text, final int start, final char open, final char close) {
+        int depth = 0;
+        char quote = 0;
+        for (int i = start; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == open) {
+                depth++;
+            } else if (c == close && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a candidate JSON value leniently.
+     *
+     * @param json the candidate JSON value.
+     * @return the {@link JsonNode}, or {@code null} if the candidate is not valid.
+     */
+    private JsonNode read(final String json) {
+        try {
+            return reader.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Extracts the score and reason of a JSON object.
+     *
+     * @param node the JSON object, possibly null.
+     * @return the {@link EvaluationResponse}, or {@code null} if the node has no usable score.
+     */
+    static EvaluationResponse toEvaluationResponse(final JsonNode node) {
+        if (node == null || !node.isObject()) {
+            return null;
+        }
+
+        final var score = toScore(node.get("score"));
+        if (score == null) {
+            return null;
+        }
+
+        final var reason = node.get("reason");
+        return new EvaluationResponse(score, reason == null || reason.isNull() ? null : reason.asText());
+    }
+
+    /**
+     * Converts a score node into a number, accepting numeric strings with trailing text such as {@code "8/10"}.
+     *
+     * @param scoreNode the score node, possibly null.
+     * @return the score, or {@code null} if the node holds no number.
+     */
+    private static Double toScore(final JsonNode scoreNode) {
+        if (scoreNode == null) {
+            return null;
+        }
+        if (scoreNode.isNumber()) {
+            return scoreNode.doubleValue();
+        }
+        if (scoreNode.isTextual()) {
+            final var matcher = LEADING_NUMBER.matcher(scoreNode.textValue());
+            return matcher.find() ? Double.valueOf(matcher.group(1)) : null;
+        }
+        return null;
+    }
+}
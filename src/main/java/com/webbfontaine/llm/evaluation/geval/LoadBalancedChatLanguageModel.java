@@ -0,0 +1,234 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+/**
+ * {@code LoadBalancedChatLanguageModel} is a {@link ChatLanguageModel} spreading calls over several endpoints of
+ * the same judge model, such as deployments in several regions, so that their quotas add up.
+ *
+ * <p>Each call is sent to a single endpoint, picked by the {@link LoadBalancingStrategy}. Endpoints are expected
+ * to serve the same model with the same settings, since a test case may be judged by any of them. A failed call
+ * is not sent to another endpoint; with a {@link RetryPolicy}, the retry is balanced like any other call.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final LoadBalancedChatLanguageModel chatLanguageModel = LoadBalancedChatLanguageModel.builder()
+ *     .strategy(LoadBalancingStrategy.WEIGHTED)
+ *     .endpoint(westEuropeModel, 300)
+ *     .endpoint(eastUsModel, 100)
+ *     .build();
+ * </code></pre>
+ *
+ * <p>Usually created via {@link GEvalLlmParams#loadBalanced(List, LoadBalancingStrategy, com.fasterxml.jackson.databind.ObjectMapper)}
+ * when endpoints have the same weight. This class is thread-safe.
+ */
+public final class LoadBalancedChatLanguageModel implements ChatLanguageModel {
+
+    private final List<ChatLanguageModel> endpoints;
+    private final int[] weights;
+    private final LoadBalancingStrategy strategy;
+    private final AtomicInteger[] outstanding;
+    private final LongAdder[] calls;
+    private final AtomicInteger nextEndpoint = new AtomicInteger();
+    private final int totalWeight;
+    private final int[] currentWeights;
+
+    /**
+     * Returns a builder instance to create a {@code LoadBalancedChatLanguageModel} object.
+     *
+     * @return a {@link LoadBalancedChatLanguageModelBuilder} instance.
+     */
+    public static LoadBalancedChatLanguageModelBuilder builder() {
+        return new LoadBalancedChatLanguageModelBuilder();
+    }
+
+    /**
+     * Constructs a LoadBalancedChatLanguageModel object with the specified parameters.
+     *
+     * @param endpoints the endpoints of the judge model.
+     * @param weights   the weight of every endpoint.
+     * @param strategy  the strategy picking the endpoint of a call.
+     * @throws IllegalArgumentException if {@code endpoints} is empty or {@code strategy} is null.
+     */
+    private LoadBalancedChatLanguageModel(
+        final List<ChatLanguageModel> endpoints,
+        final List<Integer> weights,
+        final LoadBalancingStrategy strategy
+    ) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("Endpoints cannot be empty.");
+        }
+
+        if (strategy == null) {
+            throw new IllegalArgumentException("Load balancing strategy cannot be null.");
+        }
+
+        this.endpoints = List.copyOf(endpoints);
+        this.weights = new int[endpoints.size()];
+        this.strategy = strategy;
+        this.outstanding = new AtomicInteger[endpoints.size()];
+        this.calls = new LongAdder[endpoints.size()];
+        int weightSum = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            this.weights[i] = weights.get(i);
+            this.outstanding[i] = new AtomicInteger();
+            this.calls[i] = new LongAdder();
+            weightSum += this.weights[i];
+        }
+        this.totalWeight = weightSum;
+        this.currentWeights = new int[endpoints.size()];
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        final int endpoint = pickEndpoint();
+        calls[endpoint].increment();
+        outstanding[endpoint].incrementAndGet();
+        try {
+            return endpoints.get(endpoint).generate(messages);
+        } finally {
+            outstanding[endpoint].decrementAndGet();
+        }
+    }
+
+    /**
+     * Picks the endpoint of the next call according to the strategy.
+     *
+     * @return the index of the endpoint.
+     */
+    private int pickEndpoint() {
+        return switch (strategy) {
+            case ROUND_ROBIN -> Math.floorMod(nextEndpoint.getAndIncrement(), endpoints.size());
+            case LEAST_OUTSTANDING -> leastOutstandingEndpoint();
+            case WEIGHTED -> weightedEndpoint();
+        };
+    }
+
+    /**
+     * Picks the endpoint with the fewest calls in progress relative to its weight, starting the search
+     * at the next endpoint in turn so that ties are spread evenly.
+     *
+     * @return the index of the endpoint.
+     */
+    private int leastOutstandingEndpoint() {
+        final int start = Math.floorMod(nextEndpoint.getAndIncrement(), endpoints.size());
+        int best = start;
+        for (int offset = 1; offset < endpoints.size(); offset++) {
+            final int candidate = (start + offset) % endpoints.size();
+            if ((long) outstanding[candidate].get() * weights[best] < (long) outstanding[best].get() * weights[candidate]) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks the endpoint with the smooth weighted round-robin algorithm: every endpoint gains its weight,
+     * and the endpoint with the highest current weight is picked and loses the total weight.
+     *
+     * @return the index of the endpoint.
+     */
+    private synchronized int weightedEndpoint() {
+        int best = 0;
+        for (int i = 0; i < endpoints.size(); i++) {
+            currentWeights[i] += weights[i];
+            if (currentWeights[i] > currentWeights[best]) {
+                best = i;
+            }
+        }
+        currentWeights[best] -= totalWeight;
+        return best;
+    }
+
+    /**
+     * Returns the number of calls sent to the given endpoint.
+     *
+     * @param endpoint the index of the endpoint, in the order endpoints were added.
+     * @return the call count of the endpoint.
+     * @throws IndexOutOfBoundsException if {@code endpoint} is not an endpoint of this model.
+     */
+    public long callCount(final int endpoint) {
+        return calls[endpoint].sum();
+    }
+
+    /**
+     * Returns the number of calls currently in progress on the given endpoint.
+     *
+     * @param endpoint the index of the endpoint, in the order endpoints were added.
+     * @return the outstanding count of the endpoint.
+     * @throws IndexOutOfBoundsException if {@code endpoint} is not an endpoint of this model.
+     */
+    public int outstandingCount(final int endpoint) {
+        return outstanding[endpoint].get();
+    }
+
+    /**
+     * Builder class for creating instances of {@code LoadBalancedChatLanguageModel}.
+     */
+    public static final class LoadBalancedChatLanguageModelBuilder {
+        private final List<ChatLanguageModel> endpoints = new ArrayList<>();
+        private final List<Integer> weights = new ArrayList<>();
+        private LoadBalancingStrategy strategy = LoadBalancingStrategy.ROUND_ROBIN;
+
+        /**
+         * Builds and returns a {@code LoadBalancedChatLanguageModel} instance.
+         *
+         * @return a new {@link LoadBalancedChatLanguageModel} instance.
+         * @throws IllegalArgumentException if no endpoint is added, or {@code strategy} is null.
+         */
+        public LoadBalancedChatLanguageModel build() {
+            return new LoadBalancedChatLanguageModel(endpoints, weights, strategy);
+        }
+
+        /**
+         * Adds an endpoint with a weight of 1.
+         *
+         * @param endpoint the model of the endpoint.
+         * @return the current {@code LoadBalancedChatLanguageModelBuilder} instance.
+         * @throws IllegalArgumentException if {@code endpoint} is null.
+         */
+        public LoadBalancedChatLanguageModelBuilder endpoint(final ChatLanguageModel endpoint) {
+            return endpoint(endpoint, 1);
+        }
+
+        /**
+         * Adds an endpoint with the given weight, such as its quota in requests per minute.
+         *
+         * @param endpoint the model of the endpoint.
+         * @param weight   the weight of the endpoint, used by the {@code LEAST_OUTSTANDING} and
+         *                 {@code WEIGHTED} strategies.
+         * @return the current {@code LoadBalancedChatLanguageModelBuilder} instance.
+         * @throws IllegalArgumentException if {@code endpoint} is null, or {@code weight} is not positive.
+         */
+        public LoadBalancedChatLanguageModelBuilder endpoint(final ChatLanguageModel endpoint, final int weight) {
+            if (endpoint == null) {
+                throw new IllegalArgumentException("The endpoint cannot be null");
+            }
+            if (weight < 1) {
+                throw new IllegalArgumentException("The weight must be positive");
+            }
+            endpoints.add(endpoint);
+            weights.add(weight);
+            return this;
+        }
+
+        /**
+         * Sets the strategy picking the endpoint of a call.
+         *
+         * @param strategy the strategy to set; defaults to {@link LoadBalancingStrategy#ROUND_ROBIN}.
+         * @return the current {@code LoadBalancedChatLanguageModelBuilder} instance.
+         */
+        public LoadBalancedChatLanguageModelBuilder strategy(final LoadBalancingStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+    }
+}
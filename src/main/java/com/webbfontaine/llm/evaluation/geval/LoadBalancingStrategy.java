@@ -0,0 +1,25 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code LoadBalancingStrategy} enumerates the ways a {@link LoadBalancedChatLanguageModel} picks the endpoint
+ * of a call.
+ */
+public enum LoadBalancingStrategy {
+
+    /**
+     * Every endpoint in turn, ignoring weights.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * The endpoint with the fewest calls in progress relative to its weight, so that slow endpoints receive
+     * fewer calls.
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * Every endpoint in turn, in proportion to its weight, such as its quota, spreading the calls of each
+     * endpoint evenly rather than in bursts.
+     */
+    WEIGHTED
+}
@@ -0,0 +1,73 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code NormalizedMatchStage} is a {@link PreJudgeStage} giving a perfect score, without calling the judge,
+ * to test cases whose actual output equals the expected output once both are normalized.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final GEval gEval = GEval.builder()
+ *     ...
+ *     .preJudgeStages(List.of(NormalizedMatchStage.of(OutputNormalizer.whitespace(), OutputNormalizer.sqlKeywords())))
+ *     .build();
+ * </code></pre>
+ *
+ * <p>This class is thread-safe.
+ */
+public final class NormalizedMatchStage implements PreJudgeStage {
+
+    private static final String DESCRIPTION = "The actual output matches the expected output after normalization.";
+
+    private final OutputNormalizer normalizer;
+    private final LongAdder decided = new LongAdder();
+
+    /**
+     * Constructs a {@code NormalizedMatchStage}.
+     *
+     * @param normalizers the normalizers applied in order to both outputs.
+     * @throws IllegalArgumentException if {@code normalizers} is null or empty.
+     */
+    public NormalizedMatchStage(final List<OutputNormalizer> normalizers) {
+        if (normalizers == null || normalizers.isEmpty()) {
+            throw new IllegalArgumentException("Normalizers cannot be null or empty.");
+        }
+
+        var composed = normalizers.get(0);
+        for (final var normalizer : normalizers.subList(1, normalizers.size())) {
+            composed = composed.andThen(normalizer);
+        }
+        this.normalizer = composed;
+    }
+
+    /**
+     * Creates a {@code NormalizedMatchStage} with the given normalizers.
+     *
+     * @param normalizers the normalizers applied in order to both outputs.
+     * @return the {@code NormalizedMatchStage}.
+     */
+    public static NormalizedMatchStage of(final OutputNormalizer... normalizers) {
+        return new NormalizedMatchStage(List.of(normalizers));
+    }
+
+    @Override
+    public GEvalMeasureResult evaluate(final LLMTestCase llmTestCase, final double threshold) {
+        if (!normalizer.normalize(llmTestCase.actualOutput()).equals(normalizer.normalize(llmTestCase.expectedOutput()))) {
+            return null;
+        }
+
+        decided.increment();
+        return new GEvalMeasureResult(true, 1.0, DESCRIPTION, 0.0, 0, EvaluationTokenUsage.NONE);
+    }
+
+    /**
+     * Returns the number of test cases decided by this stage.
+     *
+     * @return the decided count.
+     */
+    public long decidedCount() {
+        return decided.sum();
+    }
+}
@@ -0,0 +1,60 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * {@code OutputNormalizer} rewrites an output into a normal form, so that outputs differing only in
+ * insignificant ways compare equal in a {@link NormalizedMatchStage}.
+ */
+@FunctionalInterface
+public interface OutputNormalizer {
+
+    /**
+     * Normalizes the text.
+     *
+     * @param text the text to normalize.
+     * @return the normalized text.
+     */
+    String normalize(String text);
+
+    /**
+     * Returns a normalizer applying this normalizer, then the given one.
+     *
+     * @param next the normalizer applied second.
+     * @return the composed {@code OutputNormalizer}.
+     */
+    default OutputNormalizer andThen(final OutputNormalizer next) {
+        return text -> next.normalize(normalize(text));
+    }
+
+    /**
+     * Returns a normalizer collapsing runs of whitespace into a single space and stripping leading
+     * and trailing whitespace.
+     *
+     * @return the whitespace {@code OutputNormalizer}.
+     */
+    static OutputNormalizer whitespace() {
+        final var whitespace = Pattern.compile("\\s+");
+        return text -> whitespace.matcher(text.strip()).replaceAll(" ");
+    }
+
+    /**
+     * Returns a normalizer lower-casing the whole text.
+     *
+     * @return the case {@code OutputNormalizer}.
+     */
+    static OutputNormalizer caseInsensitive() {
+        return text -> text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns a normalizer upper-casing SQL keywords outside string literals and quoted identifiers,
+     * and dropping a trailing semicolon, leaving the case of identifiers untouched.
+     *
+     * @return the SQL keyword {@code OutputNormalizer}.
+     */
+    static OutputNormalizer sqlKeywords() {
+        return SqlKeywords::normalize;
+    }
+}
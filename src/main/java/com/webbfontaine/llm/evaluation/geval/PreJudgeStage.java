@@ -0,0 +1,24 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code PreJudgeStage} is the service provider interface for stages consulted by {@link GEval} before the judge
+ * model, which may decide clear-cut test cases locally and so save the judge call.
+ *
+ * <p>Stages are consulted in order, before the cache; the first stage returning a result decides the test case.
+ * Implementations must be thread-safe, since a {@code GEval} instance may evaluate test cases concurrently.
+ *
+ * @see NormalizedMatchStage
+ * @see EmbeddingSimilarityStage
+ */
+@FunctionalInterface
+public interface PreJudgeStage {
+
+    /**
+     * Decides the test case locally, if possible.
+     *
+     * @param llmTestCase the test case to evaluate.
+     * @param threshold   the minimum score for the test case to pass.
+     * @return the {@link GEvalMeasureResult}, or {@code null} to leave the test case to the next stage or the judge.
+     */
+    GEvalMeasureResult evaluate(LLMTestCase llmTestCase, double threshold);
+}
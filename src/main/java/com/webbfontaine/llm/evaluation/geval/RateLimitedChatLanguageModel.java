@@ -0,0 +1,185 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code RateLimitedChatLanguageModel} is a {@link ChatLanguageModel} decorator that keeps calls to the
+ * delegate model within a request rate and an estimated token rate.
+ *
+ * <p>Both limits are enforced by token buckets holding at most one second worth of permits, so that bursts
+ * are smoothed rather than sent at once. Callers reserve permits in arrival order and sleep until their
+ * reservation is due, which queues them fairly without holding a lock while waiting.
+ *
+ * <p>The token cost of a call is estimated from the length of its messages before the call, then corrected
+ * with the {@link dev.langchain4j.model.output.TokenUsage} reported by the model, if any.
+ *
+ * <p>Usually created via {@link GEvalLlmParams#withRateLimit(int, int)}. This class is thread-safe.
+ */
+@Slf4j
+public final class RateLimitedChatLanguageModel implements ChatLanguageModel {
+
+    private static final int CHARACTERS_PER_TOKEN = 4;
+    private static final int ESTIMATED_OUTPUT_TOKENS = 64;
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final ChatLanguageModel delegate;
+    private final TokenBucket requestBucket;
+    private final TokenBucket tokenBucket;
+
+    /**
+     * Constructs a {@code RateLimitedChatLanguageModel}.
+     *
+     * @param delegate          the model to rate limit.
+     * @param requestsPerMinute the maximum number of requests per minute, or {@code 0} for no request limit.
+     * @param tokensPerMinute   the maximum number of estimated tokens per minute, or {@code 0} for no token limit.
+     * @throws IllegalArgumentException if {@code delegate} is null, a limit is negative, or both limits are {@code 0}.
+     */
+    public RateLimitedChatLanguageModel(final ChatLanguageModel delegate, final int requestsPerMinute, final int tokensPerMinute) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("The delegate cannot be null");
+        }
+        if (requestsPerMinute < 0 || tokensPerMinute < 0) {
+            throw new IllegalArgumentException("Rate limits cannot be negative");
+        }
+        if (requestsPerMinute == 0 && tokensPerMinute == 0) {
+            throw new IllegalArgumentException("At least one of requestsPerMinute and tokensPerMinute must be positive");
+        }
+
+        this.delegate = delegate;
+        this.requestBucket = requestsPerMinute == 0 ? null : new TokenBucket(requestsPerMinute);
+        this.tokenBucket = tokensPerMinute == 0 ? null : new TokenBucket(tokensPerMinute);
+    }
+
+    @Override
+    public Response<AiMessage> generate(final List<ChatMessage> messages) {
+        final long estimatedTokens = estimateTokens(messages);
+        awaitPermits(estimatedTokens);
+
+        final var response = delegate.generate(messages);
+
+        final var tokenUsage = response.tokenUsage();
+        if (tokenBucket != null && tokenUsage != null && tokenUsage.totalTokenCount() != null) {
+            synchronized (this) {
+                tokenBucket.adjust(tokenUsage.totalTokenCount() - estimatedTokens);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Reserves one request and the estimated tokens, then sleeps until the reservation is due.
+     *
+     * @param estimatedTokens the estimated token cost of the call.
+     * @throws IllegalStateException if the calling thread is interrupted while waiting.
+     */
+    private void awaitPermits(final long estimatedTokens) {
+        final long waitNanos;
+        synchronized (this) {
+            final long now = System.nanoTime();
+            final long requestWaitNanos = requestBucket == null ? 0 : requestBucket.reserve(1, now);
+            final long tokenWaitNanos = tokenBucket == null ? 0 : tokenBucket.reserve(estimatedTokens, now);
+            waitNanos = Math.max(requestWaitNanos, tokenWaitNanos);
+        }
+
+        if (waitNanos > 0) {
+            log.debug("Rate limit reached, delaying model call by {} ms", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the model rate limit", e);
+            }
+        }
+    }
+
+    /**
+     * Estimates the token cost of a call from the length of its messages.
+     *
+     * @param messages the messages sent to the model.
+     * @return the estimated number of input and output tokens.
+     */
+    private static long estimateTokens(final List<ChatMessage> messages) {
+        long characters = 0;
+        for (final var message : messages) {
+            characters += messageText(message).length();
+        }
+        return characters / CHARACTERS_PER_TOKEN + ESTIMATED_OUTPUT_TOKENS;
+    }
+
+    /**
+     * Returns the text of a message, or an empty string if it has no single text content.
+     *
+     * @param message the message.
+     * @return the text of the message.
+     */
+    private static String messageText(final ChatMessage message) {
+        final String text;
+        if (message instanceof SystemMessage systemMessage) {
+            text = systemMessage.text();
+        } else if (message instanceof UserMessage userMessage && userMessage.hasSingleText()) {
+            text = userMessage.singleText();
+        } else if (message instanceof AiMessage aiMessage) {
+            text = aiMessage.text();
+        } else {
+            text = null;
+        }
+        return text == null ? "" : text;
+    }
+
+    /**
+     * A token bucket refilled continuously at a per-minute rate, holding at most one second worth of permits.
+     *
+     * <p>Reservations may take the bucket below zero; later callers then wait until the debt is repaid,
+     * which serves them in reservation order. Not thread-safe; guarded by the enclosing model.
+     */
+    private static final class TokenBucket {
+        private final double permitsPerNano;
+        private final double capacity;
+        private double available;
+        private long lastRefillNanos;
+
+        /**
+         * Constructs a full {@code TokenBucket}.
+         *
+         * @param permitsPerMinute the refill rate.
+         */
+        private TokenBucket(final int permitsPerMinute) {
+            this.permitsPerNano = (double) permitsPerMinute / NANOS_PER_MINUTE;
+            this.capacity = Math.max(1.0, permitsPerMinute / 60.0);
+            this.available = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * Takes the given permits from the bucket.
+         *
+         * @param permits the number of permits to take.
+         * @param now     the current {@link System#nanoTime()}.
+         * @return the number of nanoseconds to wait until the permits are actually available.
+         */
+        private long reserve(final double permits, final long now) {
+            available = Math.min(capacity, available + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+            available -= permits;
+            return available >= 0 ? 0 : (long) Math.ceil(-available / permitsPerNano);
+        }
+
+        /**
+         * Corrects a previous reservation by the given number of permits.
+         *
+         * @param extraPermits the number of permits used beyond the reservation, negative to give permits back.
+         */
+        private void adjust(final double extraPermits) {
+            available = Math.min(capacity, available - extraPermits);
+        }
+    }
+}
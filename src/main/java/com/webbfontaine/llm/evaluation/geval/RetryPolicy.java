@@ -0,0 +1,292 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@code RetryPolicy} retries failed judge calls, including replies that fail to parse, with exponential
+ * backoff and jitter.
+ *
+ * <p>The delay before retry {@code n} is drawn from {@code [base * (1 - jitter), base]}, where
+ * {@code base = min(maxBackoff, initialBackoff * multiplier^(n - 1))}. A jitter of {@code 1} (the default)
+ * spreads retries uniformly over the whole interval, so that evaluations failing together do not retry together.
+ *
+ * <p>By default, every exception is retried except {@link IllegalArgumentException}, and except when the
+ * calling thread has been interrupted. A single policy may be shared by several {@link GEval} instances;
+ * its counters then aggregate over all of them.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final RetryPolicy retryPolicy = RetryPolicy.builder()
+ *     .maxAttempts(4)
+ *     .initialBackoff(Duration.ofMillis(500))
+ *     .maxBackoff(Duration.ofSeconds(20))
+ *     .build();
+ * </code></pre>
+ */
+@Slf4j
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final double multiplier;
+    private final double jitter;
+    private final Predicate<Throwable> retryable;
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Returns a builder instance to create a {@code RetryPolicy} object.
+     *
+     * @return a {@link RetryPolicyBuilder} instance.
+     */
+    public static RetryPolicyBuilder builder() {
+        return new RetryPolicyBuilder();
+    }
+
+    /**
+     * Constructs a RetryPolicy object with the specified parameters.
+     *
+     * @param maxAttempts    the maximum number of attempts, including the first one.
+     * @param initialBackoff the base delay before the first retry.
+     * @param maxBackoff     the maximum base delay before a retry.
+     * @param multiplier     the factor applied to the base delay after each retry.
+     * @param jitter         the fraction of the base delay that is randomized, between 0 and 1.
+     * @param retryable      the classifier deciding which failures are retried.
+     * @throws IllegalArgumentException if {@code maxAttempts} is not positive, a backoff is null or negative,
+     *                                  {@code multiplier} is lower than 1, {@code jitter} is not between 0 and 1,
+     *                                  or {@code retryable} is null.
+     */
+    private RetryPolicy(
+        final int maxAttempts,
+        final Duration initialBackoff,
+        final Duration maxBackoff,
+        final double multiplier,
+        final double jitter,
+        final Predicate<Throwable> retryable
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be positive.");
+        }
+
+        if (initialBackoff == null || initialBackoff.isNegative() || maxBackoff == null || maxBackoff.isNegative()) {
+            throw new IllegalArgumentException("Backoffs cannot be null or negative.");
+        }
+
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("Multiplier must be at least 1.");
+        }
+
+        if (jitter < 0 || jitter > 1.0) {
+            throw new IllegalArgumentException("Jitter must be between 0 and 1.");
+        }
+
+        if (retryable == null) {
+            throw new IllegalArgumentException("Retryable classifier cannot be null.");
+        }
+
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+        this.retryable = retryable;
+    }
+
+    /**
+     * Runs the given action, retrying it on retryable failures until it succeeds or attempts are exhausted.
+     *
+     * @param action      the action to run.
+     * @param description a description of the action, for logging.
+     * @param <T>         the result type of the action.
+     * @return the result of the first successful attempt.
+     * @throws RuntimeException      the failure of the last attempt, if no attempt succeeded.
+     * @throws IllegalStateException if the calling thread is interrupted while waiting to retry.
+     */
+    <T> T execute(final Supplier<T> action, final String description) {
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !shouldRetry(e)) {
+                    failures.increment();
+                    throw e;
+                }
+
+                final long delayNanos = backoffNanos(attempt);
+                log.warn(
+                    "Attempt {} of {} failed for - {}, retrying in {} ms",
+                    attempt, maxAttempts, description, TimeUnit.NANOSECONDS.toMillis(delayNanos), e
+                );
+                retries.increment();
+                sleep(delayNanos, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of attempts made, including first attempts.
+     *
+     * @return the attempt count.
+     */
+    public long attemptCount() {
+        return attempts.sum();
+    }
+
+    /**
+     * Returns the number of retries made after a failed attempt.
+     *
+     * @return the retry count.
+     */
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * Returns the number of actions that failed for good, because attempts were exhausted
+     * or the failure was not retryable.
+     *
+     * @return the failure count.
+     */
+    public long failureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Decides whether the given failure is retried.
+     *
+     * @param failure the failure of the last attempt.
+     * @return {@code true} if another attempt should be made.
+     */
+    private boolean shouldRetry(final RuntimeException failure) {
+        return !Thread.currentThread().isInterrupted() && retryable.test(failure);
+    }
+
+    /**
+     * Computes the jittered delay before the retry following the given attempt.
+     *
+     * @param attempt the number of the failed attempt, starting at 1.
+     * @return the delay in nanoseconds.
+     */
+    private long backoffNanos(final int attempt) {
+        final double base = Math.min(
+            maxBackoff.toNanos(),
+            initialBackoff.toNanos() * Math.pow(multiplier, attempt - 1.0)
+        );
+        return (long) (base * (1.0 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * Sleeps before a retry.
+     *
+     * @param delayNanos the delay in nanoseconds.
+     * @param failure    the failure being retried, attached to the exception thrown on interruption.
+     * @throws IllegalStateException if the calling thread is interrupted.
+     */
+    private static void sleep(final long delayNanos, final RuntimeException failure) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(delayNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final var interrupted = new IllegalStateException("Interrupted while waiting to retry", failure);
+            interrupted.addSuppressed(e);
+            throw interrupted;
+        }
+    }
+
+    /**
+     * Builder class for creating instances of {@code RetryPolicy}.
+     */
+    public static final class RetryPolicyBuilder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private Duration maxBackoff = Duration.ofSeconds(30);
+        private double multiplier = 2.0;
+        private double jitter = 1.0;
+        private Predicate<Throwable> retryable = failure -> !(failure instanceof IllegalArgumentException);
+
+        /**
+         * Builds and returns a {@code RetryPolicy} instance.
+         *
+         * @return a new {@link RetryPolicy} instance.
+         */
+        public RetryPolicy build() {
+            return new RetryPolicy(maxAttempts, initialBackoff, maxBackoff, multiplier, jitter, retryable);
+        }
+
+        /**
+         * Sets the maximum number of attempts, including the first one.
+         *
+         * @param maxAttempts the maximum number of attempts; defaults to 3.
+         * @return the current {@code RetryPolicyBuilder} instance.
+         */
+        public RetryPolicyBuilder maxAttempts(final int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Sets the base delay before the first retry.
+         *
+         * @param initialBackoff the initial backoff; defaults to 500 milliseconds.
+         * @return the current {@code RetryPolicyBuilder} instance.
+         */
+        public RetryPolicyBuilder initialBackoff(final Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the maximum base delay before a retry.
+         *
+         * @param maxBackoff the maximum backoff; defaults to 30 seconds.
+         * @return the current {@code RetryPolicyBuilder} instance.
+         */
+        public RetryPolicyBuilder maxBackoff(final Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Sets the factor applied to the base delay after each retry.
+         *
+         * @param multiplier the backoff multiplier; defaults to 2.
+         * @return the current {@code RetryPolicyBuilder} instance.
+         */
+        public RetryPolicyBuilder multiplier(final double multiplier) {
+            this.multiplier = multiplier;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of the base delay that is randomized.
+         *
+         * @param jitter the jitter, between 0 (no jitter) and 1 (full jitter, the default).
+         * @return the current {@code RetryPolicyBuilder} instance.
+         */
+        public RetryPolicyBuilder jitter(final double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the classifier deciding which failures are retried.
+         *
+         * @param retryable the predicate returning {@code true} for retryable failures.
+         * @return the current {@code RetryPolicyBuilder} instance.
+         */
+        public RetryPolicyBuilder retryOn(final Predicate<Throwable> retryable) {
+            this.retryable = retryable;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code SamplingPolicy} defines how many times the judge model is asked to evaluate a single test case.
+ *
+ * <p>As proposed in the G-Eval paper, averaging several sampled judgements gives finer-grained and more stable
+ * scores than a single one. The initial samples of a test case are requested concurrently, so that the evaluation
+ * takes about as long as a single call. Sampling only makes sense with a judge model configured with a non-zero
+ * temperature.
+ *
+ * <p>An {@linkplain #adaptive(int, int, double) adaptive} policy stops sampling as soon as the confidence interval
+ * around the running mean score lies entirely on one side of the threshold, since further samples would not change
+ * the pass/fail decision. Clear-cut test cases then cost {@code minSamples} calls, and only borderline ones
+ * {@code maxSamples}. The interval uses Student's t-distribution, which is much wider than the normal distribution
+ * for a few samples, and a variance of at least the rounding variance of scores given in tenths, so that identical
+ * scores do not give a zero-width interval. Sampling never stops before {@code minSamples} scores were obtained,
+ * including when some of the concurrent samples failed.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final GEval gEval = GEval.builder()
+ *     // ...
+ *     .sampling(SamplingPolicy.adaptive(2, 8))
+ *     .build();
+ * </code></pre>
+ */
+public final class SamplingPolicy {
+
+    private static final double DEFAULT_Z_SCORE = 1.96;
+    private static final double MIN_VARIANCE = 0.1 * 0.1 / 12;
+    private static final SamplingPolicy SINGLE = new SamplingPolicy(1, 1, DEFAULT_Z_SCORE);
+
+    private final int minSamples;
+    private final int maxSamples;
+    private final double zScore;
+    private final double[] criticalValues;
+
+    /**
+     * Constructs a {@code SamplingPolicy}.
+     *
+     * @param minSamples the number of samples requested concurrently for every test case.
+     * @param maxSamples the maximum number of samples per test case.
+     * @param zScore     the z-score of the confidence interval deciding whether to stop sampling.
+     */
+    private SamplingPolicy(final int minSamples, final int maxSamples, final double zScore) {
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+        this.zScore = zScore;
+        this.criticalValues = new double[maxSamples];
+        for (int degreesOfFreedom = 1; degreesOfFreedom < maxSamples; degreesOfFreedom++) {
+            criticalValues[degreesOfFreedom] = StudentT.criticalValue(zScore, degreesOfFreedom);
+        }
+    }
+
+    /**
+     * Returns the policy asking the judge model once per test case, which is the default.
+     *
+     * @return the single-sample {@code SamplingPolicy}.
+     */
+    public static SamplingPolicy single() {
+        return SINGLE;
+    }
+
+    /**
+     * Returns a policy asking the judge model {@code samples} times per test case and averaging the scores.
+     *
+     * @param samples the number of samples per test case.
+     * @return a fixed-size {@code SamplingPolicy}.
+     * @throws IllegalArgumentException if {@code samples} is not positive.
+     */
+    public static SamplingPolicy fixed(final int samples) {
+        if (samples < 1) {
+            throw new IllegalArgumentException("The number of samples must be positive");
+        }
+        return samples == 1 ? SINGLE : new SamplingPolicy(samples, samples, DEFAULT_Z_SCORE);
+    }
+
+    /**
+     * Returns an adaptive policy stopping once the 95% confidence interval of the mean score clears the threshold.
+     *
+     * @param minSamples the number of samples requested concurrently for every test case.
+     * @param maxSamples the maximum number of samples per test case.
+     * @return an adaptive {@code SamplingPolicy}.
+     * @throws IllegalArgumentException if {@code minSamples} is lower than 2, or {@code maxSamples} is lower than
+     *                                  {@code minSamples}.
+     * @see #adaptive(int, int, double)
+     */
+    public static SamplingPolicy adaptive(final int minSamples, final int maxSamples) {
+        return adaptive(minSamples, maxSamples, DEFAULT_Z_SCORE);
+    }
+
+    /**
+     * Returns an adaptive policy requesting {@code minSamples} samples, then one more sample at a time until
+     * the confidence interval {@code mean +/- t * standardError} lies entirely above or below the threshold,
+     * or {@code maxSamples} is reached, where {@code t} is the critical value of Student's t-distribution with
+     * the same confidence as {@code zScore}.
+     *
+     * @param minSamples the number of samples requested concurrently for every test case.
+     * @param maxSamples the maximum number of samples per test case.
+     * @param zScore     the z-score giving the confidence of the interval, such as 1.96 for 95% confidence.
+     * @return an adaptive {@code SamplingPolicy}.
+     * @throws IllegalArgumentException if {@code minSamples} is lower than 2, {@code maxSamples} is lower than
+     *                                  {@code minSamples}, or {@code zScore} is not positive.
+     */
+    public static SamplingPolicy adaptive(final int minSamples, final int maxSamples, final double zScore) {
+        if (minSamples < 2) {
+            throw new IllegalArgumentException("The minimum number of samples must be at least 2");
+        }
+        if (maxSamples < minSamples) {
+            throw new IllegalArgumentException("The maximum number of samples cannot be lower than the minimum");
+        }
+        if (zScore <= 0) {
+            throw new IllegalArgumentException("The zScore must be positive");
+        }
+        return new SamplingPolicy(minSamples, maxSamples, zScore);
+    }
+
+    /**
+     * Returns the number of samples requested concurrently for every test case.
+     *
+     * @return the minimum number of samples.
+     */
+    int minSamples() {
+        return minSamples;
+    }
+
+    /**
+     * Returns the maximum number of samples per test case.
+     *
+     * @return the maximum number of samples.
+     */
+    int maxSamples() {
+        return maxSamples;
+    }
+
+    /**
+     * Decides whether the sampled scores are conclusive, that is whether at least {@code minSamples} and two scores
+     * were sampled, and the Student-t confidence interval around their mean lies entirely on one side of the threshold.
+     *
+     * @param statistics the statistics of the scores sampled so far.
+     * @param threshold  the pass threshold.
+     * @return {@code true} if no further sample is needed.
+     */
+    boolean isConclusive(final ScoreStatistics statistics, final double threshold) {
+        final int count = statistics.count();
+        if (count < minSamples || count < 2 || count > maxSamples) {
+            return false;
+        }
+
+        final double margin = criticalValues[count - 1] * statistics.standardError(MIN_VARIANCE);
+        return statistics.mean() - margin >= threshold || statistics.mean() + margin < threshold;
+    }
+
+    @Override
+    public String toString() {
+        if (minSamples == maxSamples) {
+            return "SamplingPolicy[samples=" + maxSamples + "]";
+        }
+        return "SamplingPolicy[minSamples=" + minSamples + ", maxSamples=" + maxSamples + ", zScore=" + zScore + "]";
+    }
+}
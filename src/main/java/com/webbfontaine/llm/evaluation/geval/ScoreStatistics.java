@@ -0,0 +1,62 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+/**
+ * {@code ScoreStatistics} accumulates the mean and variance of sampled scores using Welford's online algorithm.
+ *
+ * <p>Not thread-safe.
+ */
+final class ScoreStatistics {
+
+    private int count;
+    private double mean;
+    private double squaredDeviations;
+
+    /**
+     * Adds a sampled score.
+     *
+     * @param score the score to add.
+     */
+    void add(final double score) {
+        count++;
+        final double delta = score - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (score - mean);
+    }
+
+    /**
+     * Returns the number of sampled scores.
+     *
+     * @return the sample count.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the sampled scores.
+     *
+     * @return the mean, or {@code 0} if no score was added.
+     */
+    double mean() {
+        return mean;
+    }
+
+    /**
+     * Returns the unbiased sample variance of the sampled scores.
+     *
+     * @return the variance, or {@code 0} if fewer than two scores were added.
+     */
+    double variance() {
+        return count < 2 ? 0.0 : squaredDeviations / (count - 1);
+    }
+
+    /**
+     * Returns the standard error of the mean of the sampled scores, with a variance of at least {@code minVariance}.
+     *
+     * @param minVariance the variance floor, such as the rounding variance of discrete scores.
+     * @return the standard error, or positive infinity if fewer than two scores were added.
+     */
+    double standardError(final double minVariance) {
+        return count < 2 ? Double.POSITIVE_INFINITY : Math.sqrt(Math.max(variance(), minVariance) / count);
+    }
+}
@@ -0,0 +1,371 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * The {@code SqlCanonicalForm} class rewrites SQL queries into a canonical form, so that queries differing only
+ * in formatting, casing, table aliases or the order of conjunctive predicates compare equal.
+ *
+ * <p>The rewrite is a conservative, token-level approximation rather than a full SQL parser: whenever a query
+ * is outside what it handles safely, such as aliases in queries with subqueries or self-joins, or predicates
+ * combined with {@code OR}, that part of the query is left as written, so distinct queries are never made equal
+ * by a rewrite it is unsure of.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class SqlCanonicalForm {
+
+    private static final Set<String> TWO_CHARACTER_OPERATORS = Set.of("<=", ">=", "<>", "!=", "||", "::");
+    private static final Set<String> CLAUSE_ENDS = Set.of(
+        "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "UNION", "EXCEPT", "INTERSECT", "WHERE",
+        "JOIN", "INNER", "LEFT", "RIGHT", "FULL", "CROSS", "NATURAL", "ON", "USING", ")"
+    );
+    private static final Set<String> COMMUTATIVE_OPERATORS = Set.of("=", "<>", "!=");
+    private static final Set<String> COMPARISON_OPERATORS = Set.of("<", ">", "<=", ">=", "LIKE", "IN", "IS", "BETWEEN", "NOT");
+
+    /**
+     * Rewrites the query into its canonical form.
+     *
+     * @param sql the SQL query.
+     * @return the canonical form of the query.
+     */
+    static String of(final String sql) {
+        final var tokens = tokenize(sql);
+        if (tokens == null) {
+            return SqlKeywords.normalize(sql);
+        }
+
+        normalizeAliases(tokens);
+        sortConjuncts(tokens);
+        return render(tokens);
+    }
+
+    /**
+     * Splits the query into tokens, upper-casing keywords, lower-casing unquoted identifiers,
+     * and dropping whitespace, comments and a trailing semicolon.
+     *
+     * @param sql the SQL query.
+     * @return the tokens, or {@code null} if a quote or comment is not closed.
+     */
+    private static List<String> tokenize(final String sql) {
+        final List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < sql.length()) {
+            final char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                final int end = sql.indexOf('\n', i);
+                i = end < 0 ? sql.length() : end + 1;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                final int end = sql.indexOf("*/", i + 2);
+                if (end < 0) {
+                    return null;
+                }
+                i = end + 2;
+            } else if (c == '\'' || c == '"' || c == '`') {
+                final int end = SqlKeywords.quotedEnd(sql, i);
+                if (sql.charAt(end - 1) != c || end - i < 2) {
+                    return null;
+                }
+                tokens.add(sql.substring(i, end));
+                i = end;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i + 1;
+                while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_' || sql.charAt(end) == '$')) {
+                    end++;
+                }
+                final var word = sql.substring(i, end).toUpperCase(Locale.ROOT);
+                tokens.add(SqlKeywords.KEYWORDS.contains(word) ? word : word.toLowerCase(Locale.ROOT));
+                i = end;
+            } else if (Character.isDigit(c)) {
+                int end = i + 1;
+                while (end < sql.length() && (Character.isDigit(sql.charAt(end)) || sql.charAt(end) == '.')) {
+                    end++;
+                }
+                tokens.add(sql.substring(i, end));
+                i = end;
+            } else if (i + 1 < sql.length() && TWO_CHARACTER_OPERATORS.contains(sql.substring(i, i + 2))) {
+                tokens.add(sql.substring(i, i + 2));
+                i += 2;
+            } else {
+                tokens.add(String.valueOf(c));
+                i++;
+            }
+        }
+
+        while (!tokens.isEmpty() && tokens.get(tokens.size() - 1).equals(";")) {
+            tokens.remove(tokens.size() - 1);
+        }
+        return tokens;
+    }
+
+    /**
+     * Replaces table aliases with the table names they stand for, and removes qualifiers from columns
+     * of single-table queries.
+     *
+     * <p>Only queries with a single {@code SELECT} and no table referenced twice are rewritten.
+     *
+     * @param tokens the tokens of the query, rewritten in place.
+     */
+    private static void normalizeAliases(final List<String> tokens) {
+        if (tokens.stream().filter("SELECT"::equals).count() != 1) {
+            return;
+        }
+
+        final List<String> rewritten = new ArrayList<>(tokens);
+        final Map<String, String> tableByAlias = new HashMap<>();
+        final Set<String> tables = new HashSet<>();
+        boolean inFrom = false;
+        for (int i = 0; i < rewritten.size(); i++) {
+            final var token = rewritten.get(i);
+            if (token.equals("FROM")) {
+                inFrom = true;
+            } else if (inFrom && (token.equals("WHERE") || token.equals("GROUP") || token.equals("ORDER")
+                || token.equals("HAVING") || token.equals("LIMIT") || token.equals("UNION"))) {
+                inFrom = false;
+            }
+
+            final boolean startsTableReference = token.equals("FROM") || token.equals("JOIN") || inFrom && token.equals(",");
+            if (!startsTableReference || i + 1 >= rewritten.size() || !isIdentifier(rewritten.get(i + 1))) {
+                continue;
+            }
+
+            final var table = rewritten.get(i + 1);
+            if (i + 2 < rewritten.size() && rewritten.get(i + 2).equals(".")) {
+                return;
+            }
+            if (!tables.add(table)) {
+                return;
+            }
+
+            int aliasIndex = i + 2;
+            if (aliasIndex < rewritten.size() && rewritten.get(aliasIndex).equals("AS")) {
+                aliasIndex++;
+            }
+            if (aliasIndex < rewritten.size() && isIdentifier(rewritten.get(aliasIndex))) {
+                tableByAlias.put(rewritten.get(aliasIndex), table);
+                rewritten.subList(i + 2, aliasIndex + 1).clear();
+            }
+        }
+
+        for (int i = 0; i + 1 < rewritten.size(); i++) {
+            final var table = tableByAlias.get(rewritten.get(i));
+            if (table != null && rewritten.get(i + 1).equals(".") && (i == 0 || !rewritten.get(i - 1).equals("."))) {
+                rewritten.set(i, table);
+            }
+        }
+
+        if (tables.size() == 1) {
+            final var table = tables.iterator().next();
+            for (int i = 0; i + 2 < rewritten.size(); i++) {
+                if (rewritten.get(i).equals(table) && rewritten.get(i + 1).equals(".")
+                    && (i == 0 || !rewritten.get(i - 1).equals("."))) {
+                    rewritten.subList(i, i + 2).clear();
+                }
+            }
+        }
+
+        tokens.clear();
+        tokens.addAll(rewritten);
+    }
+
+    /**
+     * Sorts the conjunctive predicates of every {@code WHERE}, {@code ON} and {@code HAVING} clause, and orders
+     * the operands of simple equalities and inequalities.
+     *
+     * <p>Clauses combining predicates with a top-level {@code OR} are left as written.
+     *
+     * @param tokens the tokens of the query, rewritten in place.
+     */
+    private static void sortConjuncts(final List<String> tokens) {
+        for (int start = 0; start < tokens.size(); start++) {
+            final var token = tokens.get(start);
+            if (!token.equals("WHERE") && !token.equals("ON") && !token.equals("HAVING")) {
+                continue;
+            }
+
+            final int end = clauseEnd(tokens, start + 1);
+            final var conjuncts = splitConjuncts(tokens.subList(start + 1, end));
+            if (conjuncts == null) {
+                continue;
+            }
+
+            conjuncts.forEach(SqlCanonicalForm::orderOperands);
+            conjuncts.sort(Comparator.comparing(SqlCanonicalForm::render));
+
+            final List<String> clause = new ArrayList<>(end - start - 1);
+            for (final var conjunct : conjuncts) {
+                if (!clause.isEmpty()) {
+                    clause.add("AND");
+                }
+                clause.addAll(conjunct);
+            }
+            tokens.subList(start + 1, end).clear();
+            tokens.addAll(start + 1, clause);
+        }
+    }
+
+    /**
+     * Orders the operands of a conjunct holding a single top-level equality or inequality, so that
+     * {@code a = b} and {@code b = a} have the same form.
+     *
+     * @param conjunct the tokens of the conjunct, rewritten in place.
+     */
+    private static void orderOperands(final List<String> conjunct) {
+        int operatorIndex = -1;
+        int depth = 0;
+        for (int i = 0; i < conjunct.size(); i++) {
+            final var token = conjunct.get(i);
+            if (opensGroup(token)) {
+                depth++;
+            } else if (closesGroup(token)) {
+                depth--;
+            } else if (depth == 0 && (COMMUTATIVE_OPERATORS.contains(token) || COMPARISON_OPERATORS.contains(token))) {
+                if (operatorIndex >= 0 || !COMMUTATIVE_OPERATORS.contains(token)) {
+                    return;
+                }
+                operatorIndex = i;
+            }
+        }
+        if (operatorIndex <= 0 || operatorIndex == conjunct.size() - 1) {
+            return;
+        }
+
+        final List<String> left = new ArrayList<>(conjunct.subList(0, operatorIndex));
+        final List<String> right = new ArrayList<>(conjunct.subList(operatorIndex + 1, conjunct.size()));
+        if (render(left).compareTo(render(right)) > 0) {
+            final var operator = conjunct.get(operatorIndex);
+            conjunct.clear();
+            conjunct.addAll(right);
+            conjunct.add(operator);
+            conjunct.addAll(left);
+        }
+    }
+
+    /**
+     * Finds the end of the clause starting at {@code start}, at the first top-level token ending a clause.
+     *
+     * @param tokens the tokens of the query.
+     * @param start  the index of the first token of the clause.
+     * @return the index following the last token of the clause.
+     */
+    private static int clauseEnd(final List<String> tokens, final int start) {
+        int depth = 0;
+        for (int i = start; i < tokens.size(); i++) {
+            final var token = tokens.get(i);
+            if (depth == 0 && CLAUSE_ENDS.contains(token)) {
+                return i;
+            }
+            if (opensGroup(token)) {
+                depth++;
+            } else if (closesGroup(token)) {
+                depth--;
+            }
+        }
+        return tokens.size();
+    }
+
+    /**
+     * Splits a clause into its top-level conjuncts, keeping the {@code AND} of {@code BETWEEN} predicates.
+     *
+     * @param clause the tokens of the clause.
+     * @return the conjuncts, or {@code null} if the clause has a top-level {@code OR} or an empty conjunct.
+     */
+    private static List<List<String>> splitConjuncts(final List<String> clause) {
+        final List<List<String>> conjuncts = new ArrayList<>();
+        List<String> conjunct = new ArrayList<>();
+        int depth = 0;
+        boolean pendingBetween = false;
+        for (final var token : clause) {
+            if (opensGroup(token)) {
+                depth++;
+            } else if (closesGroup(token)) {
+                depth--;
+            } else if (depth == 0 && token.equals("OR")) {
+                return null;
+            } else if (depth == 0 && token.equals("BETWEEN")) {
+                pendingBetween = true;
+            } else if (depth == 0 && token.equals("AND")) {
+                if (pendingBetween) {
+                    pendingBetween = false;
+                } else {
+                    if (conjunct.isEmpty()) {
+                        return null;
+                    }
+                    conjuncts.add(conjunct);
+                    conjunct = new ArrayList<>();
+                    continue;
+                }
+            }
+            conjunct.add(token);
+        }
+
+        if (conjunct.isEmpty()) {
+            return null;
+        }
+        conjuncts.add(conjunct);
+        return conjuncts;
+    }
+
+    /**
+     * Indicates whether the token opens a nested group, a parenthesis or a {@code CASE} expression, whose
+     * {@code AND}s and operators belong to the group rather than to the enclosing clause.
+     *
+     * @param token the token.
+     * @return {@code true} for {@code (} and {@code CASE}.
+     */
+    private static boolean opensGroup(final String token) {
+        return token.equals("(") || token.equals("CASE");
+    }
+
+    /**
+     * Indicates whether the token closes a nested group opened by a token accepted by {@link #opensGroup(String)}.
+     *
+     * @param token the token.
+     * @return {@code true} for {@code )} and {@code END}.
+     */
+    private static boolean closesGroup(final String token) {
+        return token.equals(")") || token.equals("END");
+    }
+
+    /**
+     * Indicates whether the token is an unquoted identifier rather than a keyword, literal or symbol.
+     *
+     * @param token the token.
+     * @return {@code true} for an identifier.
+     */
+    private static boolean isIdentifier(final String token) {
+        final char first = token.charAt(0);
+        return (Character.isLetter(first) || first == '_') && !SqlKeywords.KEYWORDS.contains(token);
+    }
+
+    /**
+     * Joins the tokens with single spaces, except around dots and inside parentheses and before commas.
+     *
+     * @param tokens the tokens.
+     * @return the rendered query.
+     */
+    private static String render(final List<String> tokens) {
+        final var stringBuilder = new StringBuilder();
+        String previous = null;
+        for (final var token : tokens) {
+            if (previous != null && !previous.equals(".") && !previous.equals("(")
+                && !token.equals(".") && !token.equals(",") && !token.equals(")")) {
+                stringBuilder.append(' ');
+            }
+            stringBuilder.append(token);
+            previous = token;
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,98 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code SqlCanonicalizer} is an {@link OutputNormalizer} rewriting SQL queries into a canonical form,
+ * for text-to-SQL evaluations where alias renames, keyword casing, formatting and the order of {@code AND}ed
+ * predicates do not matter.
+ *
+ * <p>Used in a {@link NormalizedMatchStage}, it gives a perfect score without a judge call to queries that are
+ * structurally identical to the expected query. Canonical forms are kept in a bounded, least-recently-used cache,
+ * so that expected queries shared by many test cases are canonicalized once.
+ *
+ * <p>Usage Example:</p>
+ * <pre><code>
+ * final GEval gEval = GEval.builder()
+ *     ...
+ *     .preJudgeStages(List.of(NormalizedMatchStage.of(new SqlCanonicalizer(10_000))))
+ *     .build();
+ * </code></pre>
+ *
+ * <p>For instance, {@code SELECT * FROM payment_means WHERE receipt = 352} and
+ * {@code select * from payment_means means where means.receipt = 352} have the same canonical form.
+ *
+ * <p>This class is thread-safe.
+ */
+public final class SqlCanonicalizer implements OutputNormalizer {
+
+    private final int maxSize;
+    private final Map<String, String> canonicalForms;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs a {@code SqlCanonicalizer} caching at most {@code maxSize} canonical forms.
+     *
+     * @param maxSize the maximum number of cached canonical forms.
+     * @throws IllegalArgumentException if {@code maxSize} is not positive.
+     */
+    public SqlCanonicalizer(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maxSize must be positive");
+        }
+
+        this.maxSize = maxSize;
+        this.canonicalForms = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                return size() > SqlCanonicalizer.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the canonical form of the SQL query, from the cache if present.
+     *
+     * @param sql the SQL query.
+     * @return the canonical form of the query.
+     */
+    @Override
+    public String normalize(final String sql) {
+        String canonicalForm;
+        synchronized (canonicalForms) {
+            canonicalForm = canonicalForms.get(sql);
+        }
+        if (canonicalForm != null) {
+            hits.increment();
+            return canonicalForm;
+        }
+
+        misses.increment();
+        canonicalForm = SqlCanonicalForm.of(sql);
+        synchronized (canonicalForms) {
+            canonicalForms.put(sql, canonicalForm);
+        }
+        return canonicalForm;
+    }
+
+    /**
+     * Returns the number of queries whose canonical form was found in the cache.
+     *
+     * @return the hit count.
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of queries that had to be canonicalized.
+     *
+     * @return the miss count.
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,83 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.Locale;
+import java.util.Set;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * The {@code SqlKeywords} class normalizes the casing of SQL keywords.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class SqlKeywords {
+
+    /**
+     * The reserved words of common SQL dialects that are upper-cased.
+     */
+    static final Set<String> KEYWORDS = Set.of(
+        "ALL", "AND", "AS", "ASC", "BETWEEN", "BY", "CASE", "CROSS", "DELETE", "DESC", "DISTINCT", "ELSE", "END",
+        "EXCEPT", "EXISTS", "FALSE", "FETCH", "FIRST", "FROM", "FULL", "GROUP", "HAVING", "IN", "INNER", "INSERT",
+        "INTERSECT", "INTO", "IS", "JOIN", "LEFT", "LIKE", "LIMIT", "NATURAL", "NOT", "NULL", "OFFSET", "ON", "OR",
+        "ORDER", "OUTER", "RIGHT", "ROWS", "SELECT", "SET", "THEN", "TRUE", "UNION", "UPDATE", "USING", "VALUES",
+        "WHEN", "WHERE", "WITH"
+    );
+
+    /**
+     * Upper-cases the SQL keywords of the query outside string literals and quoted identifiers,
+     * and drops a trailing semicolon.
+     *
+     * @param sql the SQL query.
+     * @return the normalized query.
+     */
+    static String normalize(final String sql) {
+        final var stringBuilder = new StringBuilder(sql.length());
+        int i = 0;
+        while (i < sql.length()) {
+            final char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                final int end = quotedEnd(sql, i);
+                stringBuilder.append(sql, i, end);
+                i = end;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i + 1;
+                while (end < sql.length() && (Character.isLetterOrDigit(sql.charAt(end)) || sql.charAt(end) == '_')) {
+                    end++;
+                }
+                final var word = sql.substring(i, end);
+                final var upperCaseWord = word.toUpperCase(Locale.ROOT);
+                stringBuilder.append(KEYWORDS.contains(upperCaseWord) ? upperCaseWord : word);
+                i = end;
+            } else {
+                stringBuilder.append(c);
+                i++;
+            }
+        }
+
+        final var normalized = stringBuilder.toString().strip();
+        return normalized.endsWith(";") ? normalized.substring(0, normalized.length() - 1).strip() : normalized;
+    }
+
+    /**
+     * Finds the end of the quoted token starting at {@code start}, where a doubled quote stands for the quote itself.
+     *
+     * @param sql   the SQL query.
+     * @param start the index of the opening quote.
+     * @return the index following the closing quote, or the length of the query if the quote is not closed.
+     */
+    static int quotedEnd(final String sql, final int start) {
+        final char quote = sql.charAt(start);
+        int i = start + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return sql.length();
+    }
+}
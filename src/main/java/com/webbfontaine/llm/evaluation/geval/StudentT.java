@@ -0,0 +1,83 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+
+/**
+ * The {@code StudentT} class computes critical values of Student's t-distribution, which give confidence intervals
+ * of the mean of a few samples the width their unknown variance calls for.
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+final class StudentT {
+
+    private static final int BISECTION_STEPS = 100;
+
+    /**
+     * Returns the critical value of the t-distribution with the given degrees of freedom for the same two-sided
+     * confidence as the given z-score of the normal distribution, such as 12.71 for a z-score of 1.96 and one
+     * degree of freedom.
+     *
+     * @param zScore           the z-score of the normal distribution, positive.
+     * @param degreesOfFreedom the degrees of freedom, positive.
+     * @return the critical value, at least {@code zScore}.
+     */
+    static double criticalValue(final double zScore, final int degreesOfFreedom) {
+        final double confidence = erf(zScore / Math.sqrt(2.0));
+        double low = zScore;
+        double high = Math.max(zScore, 1.0);
+        while (centralProbability(high, degreesOfFreedom) < confidence && high < 1e12) {
+            high *= 2;
+        }
+        for (int i = 0; i < BISECTION_STEPS; i++) {
+            final double middle = (low + high) / 2;
+            if (centralProbability(middle, degreesOfFreedom) < confidence) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Returns the probability that a t-distributed variable lies between {@code -t} and {@code t}, with the closed
+     * forms for integer degrees of freedom (Abramowitz and Stegun, 26.7.3 and 26.7.4).
+     *
+     * @param t                the non-negative bound.
+     * @param degreesOfFreedom the degrees of freedom, positive.
+     * @return the central probability.
+     */
+    private static double centralProbability(final double t, final int degreesOfFreedom) {
+        final double theta = Math.atan(t / Math.sqrt(degreesOfFreedom));
+        final double cosSquared = Math.cos(theta) * Math.cos(theta);
+        if (degreesOfFreedom % 2 == 1) {
+            double term = Math.cos(theta);
+            double sum = degreesOfFreedom > 1 ? term : 0.0;
+            for (int k = 3; k <= degreesOfFreedom - 2; k += 2) {
+                term *= cosSquared * (k - 1) / k;
+                sum += term;
+            }
+            return 2.0 / Math.PI * (theta + Math.sin(theta) * sum);
+        }
+
+        double term = 1.0;
+        double sum = 1.0;
+        for (int k = 2; k <= degreesOfFreedom - 2; k += 2) {
+            term *= cosSquared * (k - 1) / k;
+            sum += term;
+        }
+        return Math.sin(theta) * sum;
+    }
+
+    /**
+     * Approximates the error function within 1.5e-7 (Abramowitz and Stegun, 7.1.26).
+     *
+     * @param x the non-negative argument.
+     * @return the error function of {@code x}.
+     */
+    private static double erf(final double x) {
+        final double t = 1.0 / (1.0 + 0.3275911 * x);
+        final double polynomial = t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))));
+        return 1.0 - polynomial * Math.exp(-x * x);
+    }
+}
@@ -55,5 +55,133 @@ public class Templates {
         }}
         **
 
+        JSON:""";
+
+    /**
+     * Template for evaluating several metrics in a single request, returning one JSON object per metric.
+     *
+     * <p>The template expects the following placeholders to be replaced:
+     * <ul>
+     *     <li>{@code {{parameters}}} - Specific information referenced in the reasons for the scores.</li>
+     *     <li>{@code {{metrics}}} - The name and numbered evaluation steps of every metric.</li>
+     *     <li>{@code {{text}}} - The content to be evaluated.</li>
+     * </ul>
+     *
+     * <p>The output must strictly adhere to JSON format, with one key per metric name, each mapped to an object
+     * with a {@code score} key (an integer between 0 and 10) and a {@code reason} key.
+     *
+     * <p>Example JSON output:
+     * <pre>
+     * {
+     *     "Correctness": {
+     *         "score": 0,
+     *         "reason": "The text does not follow the evaluation steps provided."
+     *     }
+     * }
+     * </pre>
+     */
+    public static final String GENERATE_MULTI_METRIC_EVALUATION_RESULTS = """
+        Given the evaluation steps of each of the following metrics, return a JSON with one key per metric name. The value of each key must be a JSON with two keys: 1) a `score` key ranging from 0 - 10, with 10 being that it follows the criteria outlined in the steps of the metric and 0 being that it does not, and 2) a `reason` key, a reason for the given score, but DO NOT QUOTE THE SCORE in your reason. Evaluate every metric independently, using only its own evaluation steps. Please mention specific information from {{parameters}} in your reasons, but be very concise with them!
+
+        Metrics:
+        {{metrics}}
+
+        {{text}}
+
+        **
+        IMPORTANT: Please make sure to only return in JSON format, with one key per metric name, each with the "score" and "reason" key. No words or explanation is needed.
+
+        Example JSON:
+        {{
+            "Metric name": {
+                "score": 0,
+                "reason": "The text does not follow the evaluation steps provided."
+            }
+        }}
+        **
+
+        JSON:""";
+
+    /**
+     * Template for evaluating several test cases against the same evaluation steps in a single request,
+     * returning one JSON object per test case.
+     *
+     * <p>The template expects the following placeholders to be replaced:
+     * <ul>
+     *     <li>{@code {{parameters}}} - Specific information referenced in the reasons for the scores.</li>
+     *     <li>{@code {{evaluation_steps}}} - The steps used for evaluating the provided test cases.</li>
+     *     <li>{@code {{test_cases}}} - The test cases to be evaluated, each introduced by its id.</li>
+     * </ul>
+     *
+     * <p>The output must strictly adhere to JSON format, as an array with one object per test case, each with
+     * an {@code id} key, a {@code score} key (an integer between 0 and 10) and a {@code reason} key.
+     *
+     * <p>Example JSON output:
+     * <pre>
+     * [
+     *     {
+     *         "id": 1,
+     *         "score": 0,
+     *         "reason": "The text does not follow the evaluation steps provided."
+     *     }
+     * ]
+     * </pre>
+     */
+    public static final String GENERATE_PACKED_EVALUATION_RESULTS = """
+        Given the evaluation steps, evaluate each of the following test cases independently, and return a JSON array with one element per test case. Each element must be a JSON with three keys: 1) an `id` key, the id of the test case, 2) a `score` key ranging from 0 - 10, with 10 being that it follows the criteria outlined in the steps and 0 being that it does not, and 3) a `reason` key, a reason for the given score, but DO NOT QUOTE THE SCORE in your reason. Please mention specific information from {{parameters}} in your reasons, but be very concise with them!
+
+        Evaluation Steps:
+        {{evaluation_steps}}
+
+        {{test_cases}}
+
+        **
+        IMPORTANT: Please make sure to only return in JSON format, with one element per test case, each with the "id", "score" and "reason" key. No words or explanation is needed.
+
+        Example JSON:
+        [
+            {{
+                "id": 1,
+                "score": 0,
+                "reason": "The text does not follow the evaluation steps provided."
+            }}
+        ]
+        **
+
+        JSON:""";
+
+    /**
+     * Template for generating evaluation steps from evaluation criteria, as in the original G-Eval.
+     *
+     * <p>The template expects the following placeholders to be replaced:
+     * <ul>
+     *     <li>{@code {{parameters}}} - The evaluated parameters the steps must refer to.</li>
+     *     <li>{@code {{criteria}}} - The evaluation criteria.</li>
+     * </ul>
+     *
+     * <p>The output must strictly adhere to JSON format, containing a {@code steps} key mapped to a list of strings.
+     *
+     * <p>Example JSON output:
+     * <pre>
+     * {
+     *     "steps": ["Check whether the actual output answers the input.", "..."]
+     * }
+     * </pre>
+     */
+    public static final String GENERATE_EVALUATION_STEPS = """
+        Given an evaluation criteria which outlines how you should judge the {{parameters}}, generate 3-4 concise evaluation steps based on the criteria below. You MUST make it clear how to evaluate {{parameters}} in relation to one another.
+
+        Evaluation Criteria:
+        {{criteria}}
+
+        **
+        IMPORTANT: Please make sure to only return in JSON format, with the "steps" key as a list of strings. No words or explanation is needed.
+
+        Example JSON:
+        {{
+            "steps": <list_of_strings>
+        }}
+        **
+
         JSON:""";
 }
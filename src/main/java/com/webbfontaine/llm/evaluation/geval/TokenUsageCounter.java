@@ -0,0 +1,31 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code TokenUsageCounter} accumulates {@link EvaluationTokenUsage} from concurrent judge calls without locking.
+ */
+final class TokenUsageCounter {
+
+    private final LongAdder inputTokens = new LongAdder();
+    private final LongAdder outputTokens = new LongAdder();
+
+    /**
+     * Adds the usage of a judge call.
+     *
+     * @param tokenUsage the usage to add.
+     */
+    void add(final EvaluationTokenUsage tokenUsage) {
+        inputTokens.add(tokenUsage.inputTokenCount());
+        outputTokens.add(tokenUsage.outputTokenCount());
+    }
+
+    /**
+     * Returns the accumulated usage; consistent only when no judge call is in progress.
+     *
+     * @return the accumulated {@link EvaluationTokenUsage}.
+     */
+    EvaluationTokenUsage sum() {
+        return new EvaluationTokenUsage(inputTokens.sum(), outputTokens.sum());
+    }
+}
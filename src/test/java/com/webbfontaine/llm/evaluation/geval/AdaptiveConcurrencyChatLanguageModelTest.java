@@ -0,0 +1,117 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link AdaptiveConcurrencyChatLanguageModel}.
+ */
+class AdaptiveConcurrencyChatLanguageModelTest {
+
+    private static final List<ChatMessage> MESSAGES = List.of(UserMessage.from("Judge this."));
+
+    @Test
+    void recognizesOverloadsByTypeAndStatusCode() {
+        assertTrue(AdaptiveConcurrencyChatLanguageModel.isOverload(new RuntimeException(new TimeoutException())));
+        assertTrue(AdaptiveConcurrencyChatLanguageModel.isOverload(new SocketTimeoutException()));
+        assertTrue(AdaptiveConcurrencyChatLanguageModel.isOverload(new RateLimitException()));
+        assertTrue(AdaptiveConcurrencyChatLanguageModel.isOverload(new HttpStatusException(429)));
+        assertTrue(AdaptiveConcurrencyChatLanguageModel.isOverload(new IllegalStateException(new HttpStatusException(503))));
+    }
+
+    @Test
+    void ignoresStatusCodesQuotedInMessages() {
+        assertFalse(AdaptiveConcurrencyChatLanguageModel.isOverload(new IllegalArgumentException("Invalid score 429")));
+        assertFalse(AdaptiveConcurrencyChatLanguageModel.isOverload(new HttpStatusException(400)));
+    }
+
+    @Test
+    void growsTheLimitByOnePerCallUntilTheFirstOverload() {
+        final var model = adaptive(messages -> Response.from(AiMessage.from("ok")), 1);
+
+        model.generate(MESSAGES);
+        model.generate(MESSAGES);
+
+        assertEquals(3, model.limit());
+        assertEquals(0, model.inFlight());
+    }
+
+    @Test
+    void backsOffOnOverloadsOnly() {
+        final ChatLanguageModel rateLimited = messages -> {
+            throw new HttpStatusException(429);
+        };
+        final ChatLanguageModel invalid = messages -> {
+            throw new HttpStatusException(400);
+        };
+        final var limited = adaptive(rateLimited, 8);
+        final var rejected = adaptive(invalid, 8);
+
+        assertThrows(HttpStatusException.class, () -> limited.generate(MESSAGES));
+        assertThrows(HttpStatusException.class, () -> rejected.generate(MESSAGES));
+
+        assertEquals(4, limited.limit());
+        assertEquals(1, limited.overloadCount());
+        assertEquals(8, rejected.limit());
+        assertEquals(0, rejected.overloadCount());
+    }
+
+    /**
+     * Creates an adaptive model with the default classifier and backoff ratio.
+     *
+     * @param delegate     the model to limit.
+     * @param initialLimit the initial number of concurrent calls.
+     * @return the {@link AdaptiveConcurrencyChatLanguageModel}.
+     */
+    private static AdaptiveConcurrencyChatLanguageModel adaptive(final ChatLanguageModel delegate, final int initialLimit) {
+        return AdaptiveConcurrencyChatLanguageModel.builder()
+            .delegate(delegate)
+            .initialLimit(initialLimit)
+            .build();
+    }
+
+    /**
+     * A provider exception recognized by its type.
+     */
+    static final class RateLimitException extends RuntimeException {
+    }
+
+    /**
+     * A provider HTTP exception exposing its status code.
+     */
+    static final class HttpStatusException extends RuntimeException {
+        private final int statusCode;
+
+        /**
+         * Constructs an {@code HttpStatusException}.
+         *
+         * @param statusCode the HTTP status code.
+         */
+        HttpStatusException(final int statusCode) {
+            super("HTTP " + statusCode);
+            this.statusCode = statusCode;
+        }
+
+        /**
+         * Returns the HTTP status code.
+         *
+         * @return the status code.
+         */
+        public int statusCode() {
+            return statusCode;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link CompositeGEval}.
+ */
+class CompositeGEvalTest {
+
+    private static final String METRIC_REPLY = "{\"score\": 7, \"reason\": \"ok\"}";
+    private static final String MERGED_REPLY =
+        "{\"Correctness\": {\"score\": 8, \"reason\": \"right\"}, \"Joins\": {\"score\": 3, \"reason\": \"extra join\"}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LLMTestCase llmTestCase = new LLMTestCase(
+        "Get the payments of receipt 352",
+        "SELECT * FROM payment WHERE receipt = 352",
+        "select * from payment where receipt = 352"
+    );
+    private final AtomicInteger metricCalls = new AtomicInteger();
+    private final AtomicInteger mergedCalls = new AtomicInteger();
+
+    @Test
+    void judgesThePendingMetricsInOneCall() {
+        final var correctness = metric("Correctness", List.of());
+        final var joins = metric("Joins", List.of());
+
+        final var results = composite(replying(MERGED_REPLY), correctness, joins).measure(llmTestCase);
+
+        assertEquals(1, mergedCalls.get());
+        assertEquals(0, metricCalls.get());
+        assertEquals(List.of("Correctness", "Joins"), List.copyOf(results.keySet()));
+        assertEquals(0.8, results.get("Correctness").score(), 1e-9);
+        assertTrue(results.get("Correctness").passed());
+        assertFalse(results.get("Joins").passed());
+        assertEquals(new EvaluationTokenUsage(5, 2), results.get("Correctness").tokenUsage());
+        assertEquals(new EvaluationTokenUsage(5, 1), results.get("Joins").tokenUsage());
+    }
+
+    @Test
+    void keepsPreJudgedResults() {
+        final var preJudgedResult = new GEvalMeasureResult(true, 1.0, "Exact match", 0.0, 0);
+        final var correctness = metric("Correctness", List.of((testCase, threshold) -> preJudgedResult));
+        final var joins = metric("Joins", List.of());
+
+        final var results = composite(replying(MERGED_REPLY), correctness, joins).measure(llmTestCase);
+
+        assertSame(preJudgedResult, results.get("Correctness"));
+        assertEquals(0, mergedCalls.get());
+        assertEquals(1, metricCalls.get());
+        assertEquals(0.7, results.get("Joins").score(), 1e-9);
+    }
+
+    @Test
+    void judgesMetricsMissingFromTheReplyOnTheirOwn() {
+        final var correctness = metric("Correctness", List.of());
+        final var joins = metric("Joins", List.of());
+
+        final var results = composite(replying("{\"Correctness\": {\"score\": 8, \"reason\": \"right\"}}"), correctness, joins)
+            .measure(llmTestCase);
+
+        assertEquals(1, mergedCalls.get());
+        assertEquals(1, metricCalls.get());
+        assertEquals(0.8, results.get("Correctness").score(), 1e-9);
+        assertEquals(new EvaluationTokenUsage(10, 3), results.get("Correctness").tokenUsage());
+        assertEquals(0.7, results.get("Joins").score(), 1e-9);
+    }
+
+    @Test
+    void fallsBackToEachMetricWhenTheMergedReplyCannotBeParsed() {
+        final var correctness = metric("Correctness", List.of());
+        final var joins = metric("Joins", List.of());
+
+        final var results = composite(replying("I cannot judge this."), correctness, joins).measure(llmTestCase);
+
+        assertEquals(1, mergedCalls.get());
+        assertEquals(2, metricCalls.get());
+        assertEquals(0.7, results.get("Correctness").score(), 1e-9);
+        assertEquals(new EvaluationTokenUsage(7, 2), results.get("Correctness").tokenUsage());
+        assertEquals(new EvaluationTokenUsage(12, 4), correctness.tokenUsage());
+        assertEquals(new EvaluationTokenUsage(12, 3), joins.tokenUsage());
+    }
+
+    @Test
+    void fallsBackToEachMetricWhenTheMergedCallFails() {
+        final ChatLanguageModel unavailable = messages -> {
+            mergedCalls.incrementAndGet();
+            throw new IllegalStateException("Model unavailable");
+        };
+        final var correctness = metric("Correctness", List.of());
+        final var joins = metric("Joins", List.of());
+
+        final var results = composite(unavailable, correctness, joins).measure(llmTestCase);
+
+        assertEquals(2, metricCalls.get());
+        assertEquals(0.7, results.get("Correctness").score(), 1e-9);
+        assertEquals(0.7, results.get("Joins").score(), 1e-9);
+    }
+
+    @Test
+    void reportsThePhasesOfTheMergedCallToEveryMetric() {
+        final var metrics = new InMemoryGEvalMetrics();
+        final var correctness = metric("Correctness", List.of(), metrics);
+        final var joins = metric("Joins", List.of(), metrics);
+
+        composite(replying(MERGED_REPLY), correctness, joins).measure(llmTestCase);
+
+        for (final var name : List.of("Correctness", "Joins")) {
+            for (final var phase : GEvalPhase.values()) {
+                assertEquals(1, metrics.snapshot(name, phase).count(), name + " " + phase);
+            }
+        }
+    }
+
+    @Test
+    void rejectsMetricsSamplingTheJudgeSeveralTimes() {
+        final var sampled = GEval.builder()
+            .name("Sampled")
+            .threshold(0.5)
+            .evaluationSteps(List.of("Compare the actual output with the expected output."))
+            .withGEvalLlmParams(new GEvalLlmParams(metricJudge(), objectMapper))
+            .sampling(SamplingPolicy.fixed(3))
+            .build();
+
+        assertThrows(IllegalArgumentException.class, () -> composite(replying(MERGED_REPLY), sampled, metric("Joins", List.of())));
+    }
+
+    /**
+     * Creates a metric whose own judge always scores 7.
+     *
+     * @param name           the name of the metric.
+     * @param preJudgeStages the pre-judge stages of the metric.
+     * @return the {@link GEval}.
+     */
+    private GEval metric(final String name, final List<PreJudgeStage> preJudgeStages) {
+        return metric(name, preJudgeStages, null);
+    }
+
+    /**
+     * Creates a metric whose own judge always scores 7, reporting its phases to the given metrics.
+     *
+     * @param name           the name of the metric.
+     * @param preJudgeStages the pre-judge stages of the metric.
+     * @param metrics        the metrics timing the phases, or {@code null}.
+     * @return the {@link GEval}.
+     */
+    private GEval metric(final String name, final List<PreJudgeStage> preJudgeStages, final GEvalMetrics metrics) {
+        return GEval.builder()
+            .name(name)
+            .threshold(0.5)
+            .evaluationSteps(List.of("Compare the actual output with the expected output."))
+            .withGEvalLlmParams(new GEvalLlmParams(metricJudge(), objectMapper))
+            .preJudgeStages(preJudgeStages)
+            .metrics(metrics)
+            .build();
+    }
+
+    /**
+     * Returns the judge of the metrics, counting its calls and reporting 7 input and 2 output tokens per call.
+     *
+     * @return the {@link ChatLanguageModel}.
+     */
+    private ChatLanguageModel metricJudge() {
+        return messages -> {
+            metricCalls.incrementAndGet();
+            return Response.from(AiMessage.from(METRIC_REPLY), new TokenUsage(7, 2));
+        };
+    }
+
+    /**
+     * Returns the judge of the composite, counting its calls and reporting 10 input and 3 output tokens per call.
+     *
+     * @param reply the text of every reply.
+     * @return the {@link ChatLanguageModel}.
+     */
+    private ChatLanguageModel replying(final String reply) {
+        return messages -> {
+            mergedCalls.incrementAndGet();
+            return Response.from(AiMessage.from(reply), new TokenUsage(10, 3));
+        };
+    }
+
+    /**
+     * Creates a composite of the given metrics judged by the given model.
+     *
+     * @param judge   the judge of the merged metrics.
+     * @param metrics the metrics to evaluate together.
+     * @return the {@link CompositeGEval}.
+     */
+    private CompositeGEval composite(final ChatLanguageModel judge, final GEval... metrics) {
+        return CompositeGEval.builder()
+            .metrics(List.of(metrics))
+            .withGEvalLlmParams(new GEvalLlmParams(judge, objectMapper))
+            .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link EmbeddingSimilarityStage}.
+ */
+class EmbeddingSimilarityStageTest {
+
+    private static final Map<String, float[]> VECTORS = Map.of(
+        "same", new float[] {1, 0},
+        "close", new float[] {1, 0.1f},
+        "orthogonal", new float[] {0, 1},
+        "opposite", new float[] {-1, 0}
+    );
+
+    private final AtomicInteger embeddedTexts = new AtomicInteger();
+
+    private final EmbeddingModel embeddingModel = new EmbeddingModel() {
+        @Override
+        public Response<List<Embedding>> embedAll(final List<TextSegment> textSegments) {
+            final List<Embedding> embeddings = new ArrayList<>();
+            for (final var textSegment : textSegments) {
+                embeddedTexts.incrementAndGet();
+                final var vector = VECTORS.get(textSegment.text());
+                if (vector == null) {
+                    throw new IllegalStateException("Embedding service unavailable");
+                }
+                embeddings.add(Embedding.from(vector));
+            }
+            return Response.from(embeddings);
+        }
+    };
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> stage(0.9, 0.95));
+        assertThrows(IllegalArgumentException.class, () -> stage(1.5, 0.0));
+        assertThrows(IllegalArgumentException.class, () -> stage(0.9, -1.5));
+        assertThrows(IllegalArgumentException.class, () -> EmbeddingSimilarityStage.builder().passAbove(0.9).build());
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> EmbeddingSimilarityStage.builder().embeddingModel(embeddingModel).maxCachedEmbeddings(0).build()
+        );
+    }
+
+    @Test
+    void passesSimilarOutputs() {
+        final var stage = stage(0.99, 0.0);
+
+        final var result = stage.evaluate(new LLMTestCase("input", "close", "same"), 0.5);
+
+        assertTrue(result.passed());
+        assertEquals(1.0, result.score());
+        assertEquals(EvaluationTokenUsage.NONE, result.tokenUsage());
+        assertEquals(1, stage.passedCount());
+        assertEquals(0, stage.failedCount());
+        assertEquals(1, stage.decidedCount());
+    }
+
+    @Test
+    void failsDissimilarOutputs() {
+        final var stage = stage(0.99, 0.0);
+
+        final var result = stage.evaluate(new LLMTestCase("input", "opposite", "same"), 0.5);
+
+        assertFalse(result.passed());
+        assertEquals(0.0, result.score());
+        assertEquals(0, stage.passedCount());
+        assertEquals(1, stage.failedCount());
+    }
+
+    @Test
+    void leavesTestCasesOnTheBoundsToTheJudge() {
+        final var stage = stage(0.99, 0.0);
+
+        assertNull(stage.evaluate(new LLMTestCase("input", "orthogonal", "same"), 0.5));
+        assertNull(stage(1.0, -1.0).evaluate(new LLMTestCase("input", "same", "same"), 0.5));
+        assertEquals(0, stage.decidedCount());
+    }
+
+    @Test
+    void leavesTestCasesToTheJudgeWhenEmbeddingFails() {
+        final var stage = stage(0.99, 0.0);
+
+        assertNull(stage.evaluate(new LLMTestCase("input", "unknown", "same"), 0.5));
+        assertEquals(0, stage.decidedCount());
+    }
+
+    @Test
+    void embedsASharedExpectedOutputOnce() {
+        final var stage = stage(0.99, 0.0);
+
+        stage.evaluate(new LLMTestCase("first", "close", "same"), 0.5);
+        stage.evaluate(new LLMTestCase("second", "opposite", "same"), 0.5);
+
+        assertEquals(3, embeddedTexts.get());
+        assertEquals(2, stage.decidedCount());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEmbedding() {
+        final var stage = EmbeddingSimilarityStage.builder()
+            .embeddingModel(embeddingModel)
+            .passAbove(0.99)
+            .failBelow(0.0)
+            .maxCachedEmbeddings(2)
+            .build();
+
+        stage.evaluate(new LLMTestCase("first", "close", "same"), 0.5);
+        stage.evaluate(new LLMTestCase("second", "opposite", "same"), 0.5);
+        stage.evaluate(new LLMTestCase("third", "close", "same"), 0.5);
+
+        assertEquals(4, embeddedTexts.get());
+    }
+
+    /**
+     * Creates a stage over the test embedding model.
+     *
+     * @param passAbove the similarity above which test cases pass.
+     * @param failBelow the similarity below which test cases fail.
+     * @return the {@link EmbeddingSimilarityStage}.
+     */
+    private EmbeddingSimilarityStage stage(final double passAbove, final double failBelow) {
+        return EmbeddingSimilarityStage.builder()
+            .embeddingModel(embeddingModel)
+            .passAbove(passAbove)
+            .failBelow(failBelow)
+            .build();
+    }
+}
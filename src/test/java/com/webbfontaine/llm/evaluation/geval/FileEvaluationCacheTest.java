@@ -0,0 +1,138 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link FileEvaluationCache}.
+ */
+class FileEvaluationCacheTest {
+
+    private static final EvaluationCacheKey FIRST_KEY = new EvaluationCacheKey(1L, 11L);
+    private static final EvaluationCacheKey SECOND_KEY = new EvaluationCacheKey(1L, 12L);
+    private static final GEvalMeasureResult FIRST_RESULT = result(0.8, "first");
+    private static final GEvalMeasureResult SECOND_RESULT = result(0.3, "second");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsResultsAcrossReopening() throws IOException {
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            cache.put(FIRST_KEY, FIRST_RESULT);
+            cache.put(SECOND_KEY, SECOND_RESULT);
+        }
+
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            assertEquals(2, cache.size());
+            assertEquals(FIRST_RESULT, cache.get(FIRST_KEY));
+            assertEquals(SECOND_RESULT, cache.get(SECOND_KEY));
+            assertNull(cache.get(new EvaluationCacheKey(1L, 13L)));
+            assertEquals(2, cache.hitCount());
+            assertEquals(1, cache.missCount());
+        }
+    }
+
+    @Test
+    void truncatesATornTailOnOpening() throws IOException {
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            cache.put(FIRST_KEY, FIRST_RESULT);
+        }
+        final var log = directory.resolve("evaluations.log");
+        final long validSize = Files.size(log);
+        Files.write(log, new byte[] {0, 0, 1, 0, 42, 42}, StandardOpenOption.APPEND);
+
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            assertEquals(validSize, Files.size(log));
+            assertEquals(FIRST_RESULT, cache.get(FIRST_KEY));
+
+            cache.put(SECOND_KEY, SECOND_RESULT);
+        }
+
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            assertEquals(SECOND_RESULT, cache.get(SECOND_KEY));
+        }
+    }
+
+    @Test
+    void dropsACorruptedLastRecordWhenRebuildingTheIndex() throws IOException {
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            cache.put(FIRST_KEY, FIRST_RESULT);
+            cache.put(SECOND_KEY, SECOND_RESULT);
+        }
+        final var log = directory.resolve("evaluations.log");
+        try (var channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'#'}), channel.size() - 2);
+        }
+        Files.delete(directory.resolve("evaluations.idx"));
+
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            assertEquals(FIRST_RESULT, cache.get(FIRST_KEY));
+            assertNull(cache.get(SECOND_KEY));
+            assertEquals(1, cache.size());
+        }
+    }
+
+    @Test
+    void invalidatesAndCompactsPreviousConfigurations() throws IOException {
+        final var currentKey = new EvaluationCacheKey(2L, 11L);
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            cache.registerConfiguration("Correctness", 1L);
+            cache.put(FIRST_KEY, FIRST_RESULT);
+            cache.put(SECOND_KEY, SECOND_RESULT);
+            cache.registerConfiguration("Correctness", 2L);
+            cache.put(currentKey, SECOND_RESULT);
+
+            assertNull(cache.get(FIRST_KEY));
+            final long logSize = Files.size(directory.resolve("evaluations.log"));
+            cache.compact();
+
+            assertEquals(1, cache.size());
+            assertTrue(Files.size(directory.resolve("evaluations.log")) < logSize);
+            assertEquals(SECOND_RESULT, cache.get(currentKey));
+        }
+
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            assertEquals(1, cache.size());
+            assertEquals(SECOND_RESULT, cache.get(currentKey));
+            assertNull(cache.get(FIRST_KEY));
+        }
+    }
+
+    @Test
+    void keepsTheLatestResultOfAKey() throws IOException {
+        try (var cache = FileEvaluationCache.open(directory, objectMapper)) {
+            cache.put(FIRST_KEY, FIRST_RESULT);
+            cache.put(FIRST_KEY, SECOND_RESULT);
+            cache.compact();
+
+            assertEquals(1, cache.size());
+            assertEquals(SECOND_RESULT, cache.get(FIRST_KEY));
+        }
+    }
+
+    /**
+     * Creates a single-sample result without token usage.
+     *
+     * @param score       the score of the result.
+     * @param description the reason of the score.
+     * @return the {@link GEvalMeasureResult}.
+     */
+    private static GEvalMeasureResult result(final double score, final String description) {
+        return new GEvalMeasureResult(score >= 0.5, score, description, 0.0, 1, EvaluationTokenUsage.NONE);
+    }
+}
@@ -0,0 +1,227 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link GEval}.
+ */
+class GEvalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LLMTestCase llmTestCase = new LLMTestCase(
+        "Get the payments of receipt 352",
+        "SELECT * FROM payment WHERE receipt = 352",
+        "select * from payment where receipt = 352"
+    );
+    private final List<LLMTestCase> llmTestCases = List.of(
+        new LLMTestCase("Count the receipts", "SELECT count(*) FROM receipt", "select count(*) from receipt"),
+        new LLMTestCase("List the payments", "SELECT * FROM payment", "select * from payment"),
+        new LLMTestCase("List the receipts", "SELECT id FROM receipt", "select * from receipt")
+    );
+    private final AtomicInteger judgeCalls = new AtomicInteger();
+    private final AtomicInteger packedCalls = new AtomicInteger();
+    private final AtomicInteger largeJudgeCalls = new AtomicInteger();
+
+    @Test
+    void averagesTheSampledScores() {
+        final var gEval = builder(scoring(6, 7, 8)).sampling(SamplingPolicy.fixed(3)).build();
+
+        final var result = gEval.measure(llmTestCase);
+
+        assertEquals(3, judgeCalls.get());
+        assertEquals(3, result.sampleCount());
+        assertEquals(0.7, result.score(), 1e-9);
+        assertEquals(0.01, result.scoreVariance(), 1e-9);
+        assertEquals(new EvaluationTokenUsage(30, 6), result.tokenUsage());
+        assertEquals(new EvaluationTokenUsage(30, 6), gEval.tokenUsage());
+    }
+
+    @Test
+    void leavesFailedSamplesOut() {
+        final var gEval = builder(scoring(8, -1, 8)).sampling(SamplingPolicy.fixed(3)).build();
+
+        final var result = gEval.measure(llmTestCase);
+
+        assertEquals(2, result.sampleCount());
+        assertEquals(0.8, result.score(), 1e-9);
+    }
+
+    @Test
+    void failsWhenEverySampleFails() {
+        final var gEval = builder(scoring(-1)).sampling(SamplingPolicy.fixed(2)).build();
+
+        assertThrows(EvaluationMessageParsingRuntimeException.class, () -> gEval.measure(llmTestCase));
+    }
+
+    @Test
+    void judgesAPackOfTestCasesInOneCall() {
+        final var gEval = builder(packing(
+            "[{\"id\": 1, \"score\": 9, \"reason\": \"a\"}, {\"id\": 2, \"score\": 2, \"reason\": \"b\"},"
+                + " {\"id\": 3, \"score\": 6, \"reason\": \"c\"}]"
+        )).build();
+
+        final var results = gEval.measurePacked(llmTestCases, 3);
+
+        assertEquals(1, packedCalls.get());
+        assertEquals(0, judgeCalls.get());
+        assertEquals(List.of(0.9, 0.2, 0.6), List.of(
+            results.get(0).result().score(), results.get(1).result().score(), results.get(2).result().score()
+        ));
+        assertEquals(new EvaluationTokenUsage(4, 1), results.get(0).result().tokenUsage());
+        assertEquals(new EvaluationTokenUsage(3, 0), results.get(2).result().tokenUsage());
+        assertEquals(new EvaluationTokenUsage(10, 2), gEval.tokenUsage());
+    }
+
+    @Test
+    void measuresTestCasesMissingFromThePackedReplyOneByOne() {
+        final var gEval = builder(packing(
+            "[{\"id\": 1, \"score\": 9, \"reason\": \"a\"}, {\"id\": 3, \"score\": 6, \"reason\": \"c\"}]"
+        )).build();
+
+        final var results = gEval.measurePacked(llmTestCases, 3);
+
+        assertEquals(1, packedCalls.get());
+        assertEquals(1, judgeCalls.get());
+        assertEquals(1, results.get(1).index());
+        assertEquals(0.7, results.get(1).result().score(), 1e-9);
+        assertEquals(new EvaluationTokenUsage(5, 1), results.get(0).result().tokenUsage());
+    }
+
+    @Test
+    void measuresEveryTestCaseOneByOneWhenThePackedReplyCannotBeParsed() {
+        final var gEval = builder(packing("I cannot judge these.")).build();
+
+        final var results = gEval.measurePacked(llmTestCases, 3);
+
+        assertEquals(1, packedCalls.get());
+        assertEquals(3, judgeCalls.get());
+        for (final var result : results) {
+            assertTrue(result.succeeded());
+            assertEquals(0.7, result.result().score(), 1e-9);
+        }
+        assertEquals(new EvaluationTokenUsage(40, 8), gEval.tokenUsage());
+    }
+
+    @Test
+    void decidesScoresFarFromTheThresholdWithTheFirstTier() {
+        final var cascade = cascade(scoring(9));
+        final var gEval = builder(scoring(9)).cascade(cascade).build();
+
+        final var result = gEval.measure(llmTestCase);
+
+        assertEquals(0.9, result.score(), 1e-9);
+        assertEquals(0, largeJudgeCalls.get());
+        assertEquals(1, cascade.decidedCount(0));
+        assertEquals(0, cascade.escalatedCount());
+    }
+
+    @Test
+    void escalatesScoresNearTheThresholdToTheNextTier() {
+        final var cascade = cascade(scoring(5));
+        final var gEval = builder(scoring(5)).cascade(cascade).build();
+
+        final var result = gEval.measure(llmTestCase);
+
+        assertEquals(0.2, result.score(), 1e-9);
+        assertEquals(1, judgeCalls.get());
+        assertEquals(1, largeJudgeCalls.get());
+        assertEquals(1, cascade.decidedCount(1));
+        assertEquals(new EvaluationTokenUsage(20, 4), result.tokenUsage());
+    }
+
+    @Test
+    void escalatesPackedTestCasesNearTheThreshold() {
+        final var cascade = cascade(packing(
+            "[{\"id\": 1, \"score\": 9, \"reason\": \"a\"}, {\"id\": 2, \"score\": 5, \"reason\": \"b\"},"
+                + " {\"id\": 3, \"score\": 1, \"reason\": \"c\"}]"
+        ));
+        final var gEval = builder(scoring(7)).cascade(cascade).build();
+
+        final var results = gEval.measurePacked(llmTestCases, 3);
+
+        assertEquals(1, packedCalls.get());
+        assertEquals(1, largeJudgeCalls.get());
+        assertEquals(0.9, results.get(0).result().score(), 1e-9);
+        assertEquals(0.2, results.get(1).result().score(), 1e-9);
+        assertEquals(0.1, results.get(2).result().score(), 1e-9);
+        assertEquals(new EvaluationTokenUsage(13, 3), results.get(1).result().tokenUsage());
+    }
+
+    /**
+     * Creates a two-tier cascade whose first tier is the given model, escalating scores within 0.15 of the threshold
+     * to a large judge scoring 2 out of 10, with 10 input and 2 output tokens per call.
+     *
+     * @param smallJudge the judge of the first tier.
+     * @return the {@link JudgeCascade}.
+     */
+    private JudgeCascade cascade(final ChatLanguageModel smallJudge) {
+        final ChatLanguageModel largeJudge = messages -> {
+            largeJudgeCalls.incrementAndGet();
+            return Response.from(AiMessage.from("{\"score\": 2, \"reason\": \"wrong\"}"), new TokenUsage(10, 2));
+        };
+        return JudgeCascade.builder()
+            .tier(smallJudge, 0.15)
+            .tier(largeJudge, 0.0)
+            .build();
+    }
+
+    /**
+     * Creates a builder of an evaluation judged by the given model.
+     *
+     * @param judge the judge model.
+     * @return the {@link GEval.GEvalBuilder}.
+     */
+    private GEval.GEvalBuilder builder(final ChatLanguageModel judge) {
+        return GEval.builder()
+            .name("Correctness")
+            .threshold(0.5)
+            .evaluationSteps(List.of("Compare the actual output with the expected output."))
+            .withGEvalLlmParams(new GEvalLlmParams(judge, objectMapper));
+    }
+
+    /**
+     * Returns a judge giving the given scores in turn, cycling through them, with 10 input and 2 output tokens
+     * per call. A negative score stands for a reply that cannot be parsed.
+     *
+     * @param scores the scores, out of 10.
+     * @return the {@link ChatLanguageModel}.
+     */
+    private ChatLanguageModel scoring(final int... scores) {
+        return messages -> {
+            final int score = scores[judgeCalls.getAndIncrement() % scores.length];
+            final var reply = score < 0 ? "I cannot judge this." : "{\"score\": " + score + ", \"reason\": \"ok\"}";
+            return Response.from(AiMessage.from(reply), new TokenUsage(10, 2));
+        };
+    }
+
+    /**
+     * Returns a judge replying to packed prompts with the given reply, and scoring 7 out of 10 otherwise,
+     * with 10 input and 2 output tokens per call.
+     *
+     * @param packedReply the reply to packed prompts.
+     * @return the {@link ChatLanguageModel}.
+     */
+    private ChatLanguageModel packing(final String packedReply) {
+        final var single = scoring(7);
+        return messages -> {
+            if (!((SystemMessage) messages.get(0)).text().contains("Test Case 1:")) {
+                return single.generate(messages);
+            }
+            packedCalls.incrementAndGet();
+            return Response.from(AiMessage.from(packedReply), new TokenUsage(10, 2));
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link HedgingChatLanguageModel}.
+ */
+class HedgingChatLanguageModelTest {
+
+    private static final List<ChatMessage> MESSAGES = List.of(UserMessage.from("Judge this."));
+    private static final Response<AiMessage> PRIMARY_REPLY = Response.from(AiMessage.from("primary"));
+    private static final Response<AiMessage> HEDGE_REPLY = Response.from(AiMessage.from("hedge"));
+
+    private final CountDownLatch releasePrimary = new CountDownLatch(1);
+
+    @Test
+    void answersWithTheHedgeWhenTheCallIsSlow() {
+        final var model = hedging(stalledPrimary(), messages -> HEDGE_REPLY, 1.0);
+
+        try {
+            assertSame(HEDGE_REPLY, model.generate(MESSAGES));
+        } finally {
+            releasePrimary.countDown();
+        }
+
+        assertEquals(1, model.callCount());
+        assertEquals(1, model.hedgeCount());
+        assertEquals(1, awaitHedgeWins(model, 1));
+    }
+
+    @Test
+    void doesNotHedgeFastCalls() {
+        final var model = hedging(messages -> PRIMARY_REPLY, messages -> HEDGE_REPLY, 1.0);
+
+        assertSame(PRIMARY_REPLY, model.generate(MESSAGES));
+
+        assertEquals(0, model.hedgeCount());
+    }
+
+    @Test
+    void waitsForTheCallWhenTheHedgeRatioIsExhausted() {
+        final ChatLanguageModel slowPrimary = messages -> {
+            await(new CountDownLatch(1), 100);
+            return PRIMARY_REPLY;
+        };
+        final var model = hedging(slowPrimary, messages -> HEDGE_REPLY, 0.0);
+
+        assertSame(PRIMARY_REPLY, model.generate(MESSAGES));
+
+        assertEquals(0, model.hedgeCount());
+    }
+
+    @Test
+    void answersWithTheCallWhenTheHedgeFails() {
+        final ChatLanguageModel failingHedge = messages -> {
+            releasePrimary.countDown();
+            throw new IllegalStateException("Hedge unavailable");
+        };
+        final var model = hedging(stalledPrimary(), failingHedge, 1.0);
+
+        assertSame(PRIMARY_REPLY, model.generate(MESSAGES));
+
+        assertEquals(1, model.hedgeCount());
+        assertEquals(0, model.hedgeWinCount());
+    }
+
+    @Test
+    void failsWhenBothCallsFail() {
+        final ChatLanguageModel failingPrimary = messages -> {
+            await(releasePrimary, 1000);
+            throw new IllegalStateException("Primary unavailable");
+        };
+        final ChatLanguageModel failingHedge = messages -> {
+            releasePrimary.countDown();
+            throw new IllegalStateException("Hedge unavailable");
+        };
+        final var model = hedging(failingPrimary, failingHedge, 1.0);
+
+        assertThrows(IllegalStateException.class, () -> model.generate(MESSAGES));
+    }
+
+    /**
+     * Creates a hedging model sending hedges after 10 milliseconds.
+     *
+     * @param primary       the model receiving every call.
+     * @param hedge         the model receiving hedges.
+     * @param maxHedgeRatio the maximum ratio of hedges to calls.
+     * @return the {@link HedgingChatLanguageModel}.
+     */
+    private static HedgingChatLanguageModel hedging(
+        final ChatLanguageModel primary,
+        final ChatLanguageModel hedge,
+        final double maxHedgeRatio
+    ) {
+        return HedgingChatLanguageModel.builder()
+            .delegate(primary)
+            .hedgeModel(hedge)
+            .initialDelay(Duration.ofMillis(10))
+            .minDelay(Duration.ZERO)
+            .maxHedgeRatio(maxHedgeRatio)
+            .executor(daemonThreads())
+            .build();
+    }
+
+    /**
+     * Returns a model whose replies stall until the test releases them.
+     *
+     * @return the stalled {@link ChatLanguageModel}.
+     */
+    private ChatLanguageModel stalledPrimary() {
+        return messages -> {
+            await(releasePrimary, 5000);
+            return PRIMARY_REPLY;
+        };
+    }
+
+    /**
+     * Returns an executor running every task on a new daemon thread, so that stalled calls cannot keep the JVM alive.
+     *
+     * @return the {@link Executor}.
+     */
+    private static Executor daemonThreads() {
+        return task -> {
+            final var thread = new Thread(task);
+            thread.setDaemon(true);
+            thread.start();
+        };
+    }
+
+    /**
+     * Waits until the model counts the expected hedge wins, at most one second, since a win is counted by the
+     * winning call after the caller has received its reply.
+     *
+     * @param model    the hedging model.
+     * @param expected the expected hedge win count.
+     * @return the hedge win count once it is reached, or when the wait times out.
+     */
+    private static long awaitHedgeWins(final HedgingChatLanguageModel model, final long expected) {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (model.hedgeWinCount() < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return model.hedgeWinCount();
+    }
+
+    /**
+     * Waits for a latch, at most the given time.
+     *
+     * @param latch         the latch to wait for.
+     * @param timeoutMillis the maximum time to wait, in milliseconds.
+     */
+    private static void await(final CountDownLatch latch, final long timeoutMillis) {
+        try {
+            latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link InMemoryEvaluationCache}.
+ */
+class InMemoryEvaluationCacheTest {
+
+    private static final GEvalMeasureResult RESULT = new GEvalMeasureResult(true, 0.8, "Correct");
+
+    @Test
+    void evictsTheLeastRecentlyUsedResult() {
+        final var cache = new InMemoryEvaluationCache(2);
+        cache.put(key(1), RESULT);
+        cache.put(key(2), RESULT);
+        cache.get(key(1));
+
+        cache.put(key(3), RESULT);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertSame(RESULT, cache.get(key(1)));
+        assertNull(cache.get(key(2)));
+        assertSame(RESULT, cache.get(key(3)));
+    }
+
+    @Test
+    void countsHitsAndMisses() {
+        final var cache = new InMemoryEvaluationCache(4);
+        cache.put(key(1), RESULT);
+
+        cache.get(key(1));
+        cache.get(key(1));
+        cache.get(key(2));
+
+        assertEquals(2, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void rejectsANonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new InMemoryEvaluationCache(0));
+    }
+
+    @Test
+    void sparesTheJudgeForEvaluatedTestCases() {
+        final var judgeCalls = new AtomicInteger();
+        final ChatLanguageModel judge = messages -> {
+            judgeCalls.incrementAndGet();
+            return Response.from(AiMessage.from("{\"score\": 8, \"reason\": \"ok\"}"));
+        };
+        final var gEval = GEval.builder()
+            .name("Correctness")
+            .threshold(0.5)
+            .evaluationSteps(List.of("Compare the actual output with the expected output."))
+            .withGEvalLlmParams(new GEvalLlmParams(judge, new ObjectMapper()))
+            .cache(new InMemoryEvaluationCache(4))
+            .build();
+        final var llmTestCase = new LLMTestCase("Count the receipts", "SELECT count(*) FROM receipt", "select count(*) from receipt");
+
+        gEval.measure(llmTestCase);
+        final var cachedResult = gEval.measure(llmTestCase);
+
+        assertEquals(1, judgeCalls.get());
+        assertEquals(0.8, cachedResult.score(), 1e-9);
+        assertEquals(EvaluationTokenUsage.NONE, cachedResult.tokenUsage());
+    }
+
+    /**
+     * Creates a cache key for the given text fingerprint.
+     *
+     * @param textFingerprint the text fingerprint.
+     * @return the {@link EvaluationCacheKey}.
+     */
+    private static EvaluationCacheKey key(final long textFingerprint) {
+        return new EvaluationCacheKey(42L, textFingerprint);
+    }
+}
@@ -0,0 +1,185 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests of {@link JsonlEvaluationRunner}.
+ */
+class JsonlEvaluationRunnerTest {
+
+    private static final String RECORD = "{\"id\": \"%s\", \"input\": \"q\", \"actual_output\": \"a\", \"expected_output\": \"e\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger judgeCalls = new AtomicInteger();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reportsUnreadableLinesAtTheirLineNumber() throws IOException {
+        final var input = dataset(RECORD.formatted("first"), "{not json", "", "[1, 2]", RECORD.formatted("last"));
+        final var output = directory.resolve("results.jsonl");
+
+        final var summary = runner(false).run(input, output);
+
+        assertEquals(2, summary.evaluated());
+        assertEquals(2, summary.failed());
+        final var lines = readResults(output);
+        assertEquals(4, lines.size());
+        for (final var line : lines) {
+            final int index = line.get("index").asInt();
+            assertEquals(index == 0 || index == 4, line.has("result"), "Result of line " + index);
+            assertEquals(index == 1 || index == 3, line.has("error"), "Error of line " + index);
+        }
+    }
+
+    @Test
+    void resumesAfterTheCompletedRecords() throws IOException {
+        final var input = dataset(RECORD.formatted("a"), RECORD.formatted("b"), RECORD.formatted("c"));
+        final var output = directory.resolve("results.jsonl");
+        runner(true).run(input, output);
+        assertEquals(3, judgeCalls.get());
+
+        final var completedLine = Files.readAllLines(output).stream()
+            .filter(line -> line.contains("\"index\":1"))
+            .findFirst()
+            .orElseThrow();
+        Files.writeString(output, completedLine + "\n{\"index\":2,\"res");
+
+        final var summary = runner(true).run(input, output);
+
+        assertEquals(5, judgeCalls.get());
+        assertEquals(2, summary.evaluated());
+        assertEquals(1, summary.skipped());
+        final var indexes = new ArrayList<Integer>();
+        for (final var line : readResults(output)) {
+            assertTrue(line.has("result"));
+            indexes.add(line.get("index").asInt());
+        }
+        indexes.sort(null);
+        assertEquals(List.of(0, 1, 2), indexes);
+    }
+
+    @Test
+    void resumesByIdAfterTheDatasetIsReordered() throws IOException {
+        final var output = directory.resolve("results.jsonl");
+        runner(true).run(dataset(RECORD.formatted("a"), RECORD.formatted("b")), output);
+        assertEquals(2, judgeCalls.get());
+
+        final var summary = runner(true).run(dataset(RECORD.formatted("c"), RECORD.formatted("b"), RECORD.formatted("a")), output);
+
+        assertEquals(3, judgeCalls.get());
+        assertEquals(1, summary.evaluated());
+        assertEquals(2, summary.skipped());
+        final var ids = new ArrayList<String>();
+        for (final var line : readResults(output)) {
+            assertTrue(line.has("result"));
+            ids.add(line.get("id").asText());
+        }
+        ids.sort(null);
+        assertEquals(List.of("a", "b", "c"), ids);
+    }
+
+    @Test
+    void resumesByLineNumberForRecordsWithoutId() throws IOException {
+        final var record = "{\"input\": \"q\", \"actual_output\": \"a\", \"expected_output\": \"e\"}";
+        final var output = directory.resolve("results.jsonl");
+        runner(true).run(dataset(record), output);
+
+        final var summary = runner(true).run(dataset(record, record), output);
+
+        assertEquals(2, judgeCalls.get());
+        assertEquals(1, summary.evaluated());
+        assertEquals(1, summary.skipped());
+    }
+
+    @Test
+    void overwritesResultsWithoutResume() throws IOException {
+        final var input = dataset(RECORD.formatted("a"), RECORD.formatted("b"));
+        final var output = directory.resolve("results.jsonl");
+        Files.writeString(output, "{\"index\":0,\"result\":{}}\n");
+
+        final var summary = runner(false).run(input, output);
+
+        assertEquals(2, summary.evaluated());
+        assertEquals(0, summary.skipped());
+        assertEquals(2, readResults(output).size());
+    }
+
+    /**
+     * Creates a runner over an evaluation whose judge always replies with the same score.
+     *
+     * @param resume whether the runner resumes from an existing results file.
+     * @return the {@link JsonlEvaluationRunner}.
+     */
+    private JsonlEvaluationRunner runner(final boolean resume) {
+        final ChatLanguageModel judge = new ChatLanguageModel() {
+            @Override
+            public Response<AiMessage> generate(final List<ChatMessage> messages) {
+                judgeCalls.incrementAndGet();
+                return Response.from(AiMessage.from("{\"score\": 7, \"reason\": \"ok\"}"), new TokenUsage(10, 2));
+            }
+        };
+        final var gEval = GEval.builder()
+            .name("Correctness")
+            .threshold(0.5)
+            .evaluationSteps(List.of("Compare the actual output with the expected output."))
+            .withGEvalLlmParams(new GEvalLlmParams(judge, objectMapper))
+            .build();
+        return JsonlEvaluationRunner.builder()
+            .gEval(gEval)
+            .objectMapper(objectMapper)
+            .maxInFlight(2)
+            .resume(resume)
+            .build();
+    }
+
+    /**
+     * Writes a dataset with the given lines.
+     *
+     * @param lines the lines of the dataset.
+     * @return the path of the dataset.
+     * @throws IOException if the dataset cannot be written.
+     */
+    private Path dataset(final String... lines) throws IOException {
+        return Files.write(
+            directory.resolve("dataset.jsonl"),
+            List.of(lines),
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING
+        );
+    }
+
+    /**
+     * Reads the result lines of a results file.
+     *
+     * @param output the results file.
+     * @return the parsed result lines.
+     * @throws IOException if the results file cannot be read.
+     */
+    private List<JsonNode> readResults(final Path output) throws IOException {
+        final List<JsonNode> lines = new ArrayList<>();
+        for (final var line : Files.readAllLines(output)) {
+            lines.add(objectMapper.readTree(line));
+        }
+        return lines;
+    }
+}
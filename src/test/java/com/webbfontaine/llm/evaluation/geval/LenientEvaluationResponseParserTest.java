@@ -0,0 +1,63 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link LenientEvaluationResponseParser}.
+ */
+class LenientEvaluationResponseParserTest {
+
+    private final LenientEvaluationResponseParser parser = new LenientEvaluationResponseParser(new ObjectMapper());
+
+    @Test
+    void parsesStrictReplies() {
+        assertEquals(new EvaluationResponse(8.0, "ok"), parser.parse("{\"score\": 8, \"reason\": \"ok\"}"));
+    }
+
+    @Test
+    void parsesFencedRepliesWithTrailingCommasAndFractionScores() {
+        final var reply = "```json\n{\"score\": \"8/10\", \"reason\": \"ok\",}\n```";
+
+        assertEquals(new EvaluationResponse(8.0, "ok"), parser.parse(reply));
+    }
+
+    @Test
+    void parsesSingleQuotedRepliesAfterProse() {
+        final var reply = "Score: 7. {'score': 7, 'reason': 'single'}";
+
+        assertEquals(new EvaluationResponse(7.0, "single"), parser.parse(reply));
+    }
+
+    @Test
+    void skipsUnbalancedCandidates() {
+        final var reply = "Here's {broken {\"score\": 6, \"reason\": \"r\"}";
+
+        assertEquals(new EvaluationResponse(6.0, "r"), parser.parse(reply));
+    }
+
+    @Test
+    void returnsNullWithoutAScore() {
+        assertNull(parser.parse(null));
+        assertNull(parser.parse("no json"));
+        assertNull(parser.parse("{\"reason\": \"x\"}"));
+        assertNull(parser.parse("{\"score\": \"high\", \"reason\": \"x\"}"));
+    }
+
+    @Test
+    void readsTheFirstAcceptedArray() {
+        final var node = parser.readFirst("[oops] then [{\"id\": 1}]", '[', ']', JsonNode::isArray);
+
+        assertEquals(1, node.get(0).get("id").asInt());
+    }
+
+    @Test
+    void findsBalancedEndsOutsideStrings() {
+        assertEquals(9, LenientEvaluationResponseParser.findBalancedEnd("{\"a\": \"}\"} x", 0, '{', '}'));
+        assertEquals(-1, LenientEvaluationResponseParser.findBalancedEnd("{ {", 0, '{', '}'));
+    }
+}
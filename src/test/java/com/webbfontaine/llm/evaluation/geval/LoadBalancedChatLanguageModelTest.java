@@ -0,0 +1,118 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link LoadBalancedChatLanguageModel}.
+ */
+class LoadBalancedChatLanguageModelTest {
+
+    private static final List<ChatMessage> MESSAGES = List.of(SystemMessage.from("Judge this."));
+    private static final ChatLanguageModel ENDPOINT = messages -> Response.from(AiMessage.from("{\"score\": 7, \"reason\": \"ok\"}"));
+
+    @Test
+    void sendsCallsToEveryEndpointInTurn() {
+        final var model = LoadBalancedChatLanguageModel.builder()
+            .endpoint(ENDPOINT, 5)
+            .endpoint(ENDPOINT)
+            .endpoint(ENDPOINT)
+            .build();
+
+        generate(model, 6);
+
+        for (int endpoint = 0; endpoint < 3; endpoint++) {
+            assertEquals(2, model.callCount(endpoint));
+        }
+    }
+
+    @Test
+    void sendsCallsInProportionToTheWeights() {
+        final var model = LoadBalancedChatLanguageModel.builder()
+            .strategy(LoadBalancingStrategy.WEIGHTED)
+            .endpoint(ENDPOINT, 3)
+            .endpoint(ENDPOINT, 1)
+            .build();
+
+        generate(model, 8);
+
+        assertEquals(6, model.callCount(0));
+        assertEquals(2, model.callCount(1));
+    }
+
+    @Test
+    void avoidsEndpointsWithCallsInProgress() throws InterruptedException {
+        final var entered = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final ChatLanguageModel stalled = messages -> {
+            entered.countDown();
+            await(release);
+            return ENDPOINT.generate(messages);
+        };
+        final var model = LoadBalancedChatLanguageModel.builder()
+            .strategy(LoadBalancingStrategy.LEAST_OUTSTANDING)
+            .endpoint(stalled)
+            .endpoint(ENDPOINT)
+            .build();
+
+        final var stalledCall = new Thread(() -> model.generate(MESSAGES));
+        stalledCall.start();
+        try {
+            await(entered);
+            assertEquals(1, model.outstandingCount(0));
+
+            generate(model, 2);
+
+            assertEquals(1, model.callCount(0));
+            assertEquals(2, model.callCount(1));
+        } finally {
+            release.countDown();
+            stalledCall.join();
+        }
+        assertEquals(0, model.outstandingCount(0));
+    }
+
+    @Test
+    void rejectsInvalidEndpoints() {
+        assertThrows(IllegalArgumentException.class, () -> LoadBalancedChatLanguageModel.builder().build());
+        assertThrows(IllegalArgumentException.class, () -> LoadBalancedChatLanguageModel.builder().endpoint(ENDPOINT, 0));
+        assertThrows(IllegalArgumentException.class, () -> LoadBalancedChatLanguageModel.builder().endpoint(null));
+    }
+
+    /**
+     * Sends the given number of calls through the model, one after another.
+     *
+     * @param model the load balanced model.
+     * @param calls the number of calls.
+     */
+    private static void generate(final ChatLanguageModel model, final int calls) {
+        for (int i = 0; i < calls; i++) {
+            model.generate(MESSAGES);
+        }
+    }
+
+    /**
+     * Waits for a latch, at most five seconds.
+     *
+     * @param latch the latch to wait for.
+     */
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
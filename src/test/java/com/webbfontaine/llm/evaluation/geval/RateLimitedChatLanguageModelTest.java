@@ -0,0 +1,72 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link RateLimitedChatLanguageModel}.
+ */
+class RateLimitedChatLanguageModelTest {
+
+    private static final List<ChatMessage> MESSAGES = List.of(SystemMessage.from("Judge this."));
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final ChatLanguageModel delegate = messages -> {
+        calls.incrementAndGet();
+        return Response.from(AiMessage.from("{\"score\": 7, \"reason\": \"ok\"}"));
+    };
+
+    @Test
+    void delaysRequestsBeyondTheRequestRate() {
+        final var model = new RateLimitedChatLanguageModel(delegate, 600, 0);
+
+        final long elapsedMillis = elapsedMillis(model, 12);
+
+        assertEquals(12, calls.get());
+        assertTrue(elapsedMillis >= 150, "12 requests at 10 per second with a burst of 10 took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void delaysRequestsBeyondTheTokenRate() {
+        final var model = new RateLimitedChatLanguageModel(delegate, 0, 6_000);
+
+        final long elapsedMillis = elapsedMillis(model, 2);
+
+        assertEquals(2, calls.get());
+        assertTrue(elapsedMillis >= 250, "2 requests of about 66 tokens at 100 tokens per second took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitedChatLanguageModel(null, 60, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitedChatLanguageModel(delegate, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitedChatLanguageModel(delegate, 0, 0));
+    }
+
+    /**
+     * Sends the given number of requests through the model, one after another.
+     *
+     * @param model    the rate limited model.
+     * @param requests the number of requests.
+     * @return the time taken by all requests, in milliseconds.
+     */
+    private static long elapsedMillis(final ChatLanguageModel model, final int requests) {
+        final long startNanos = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            model.generate(MESSAGES);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,106 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link RetryPolicy}.
+ */
+class RetryPolicyTest {
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void retriesUntilAnAttemptSucceeds() {
+        final var retryPolicy = retryPolicy(3);
+
+        final var result = retryPolicy.execute(() -> failTimes(2, "judged"), "judge call");
+
+        assertEquals("judged", result);
+        assertEquals(3, retryPolicy.attemptCount());
+        assertEquals(2, retryPolicy.retryCount());
+        assertEquals(0, retryPolicy.failureCount());
+    }
+
+    @Test
+    void rethrowsTheLastFailureOnceAttemptsAreExhausted() {
+        final var retryPolicy = retryPolicy(2);
+
+        final var failure = assertThrows(IllegalStateException.class, () -> retryPolicy.execute(() -> failTimes(5, "judged"), "judge call"));
+
+        assertEquals("Attempt 2 failed", failure.getMessage());
+        assertEquals(2, attempts.get());
+        assertEquals(1, retryPolicy.failureCount());
+    }
+
+    @Test
+    void doesNotRetryIllegalArguments() {
+        final var retryPolicy = retryPolicy(3);
+        final var invalid = new IllegalArgumentException("Invalid prompt");
+
+        final var failure = assertThrows(IllegalArgumentException.class, () -> retryPolicy.execute(() -> {
+            attempts.incrementAndGet();
+            throw invalid;
+        }, "judge call"));
+
+        assertSame(invalid, failure);
+        assertEquals(1, attempts.get());
+        assertEquals(0, retryPolicy.retryCount());
+    }
+
+    @Test
+    void retriesOnlyTheFailuresAcceptedByTheClassifier() {
+        final var retryPolicy = RetryPolicy.builder()
+            .maxAttempts(3)
+            .initialBackoff(Duration.ZERO)
+            .retryOn(failure -> failure instanceof UnsupportedOperationException)
+            .build();
+
+        assertThrows(IllegalStateException.class, () -> retryPolicy.execute(() -> failTimes(2, "judged"), "judge call"));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().maxAttempts(0).build());
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().multiplier(0.5).build());
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().jitter(1.5).build());
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().initialBackoff(Duration.ofMillis(-1)).build());
+    }
+
+    /**
+     * Creates a retry policy without backoff delays.
+     *
+     * @param maxAttempts the maximum number of attempts.
+     * @return the {@link RetryPolicy}.
+     */
+    private static RetryPolicy retryPolicy(final int maxAttempts) {
+        return RetryPolicy.builder()
+            .maxAttempts(maxAttempts)
+            .initialBackoff(Duration.ZERO)
+            .build();
+    }
+
+    /**
+     * Fails the first attempts, then returns the result.
+     *
+     * @param failures the number of attempts to fail.
+     * @param result   the result of the later attempts.
+     * @return the result.
+     * @throws IllegalStateException while attempts remain to fail.
+     */
+    private String failTimes(final int failures, final String result) {
+        final int attempt = attempts.incrementAndGet();
+        if (attempt <= failures) {
+            throw new IllegalStateException("Attempt " + attempt + " failed");
+        }
+        return result;
+    }
+}
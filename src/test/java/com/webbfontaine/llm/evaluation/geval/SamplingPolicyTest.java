@@ -0,0 +1,85 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link SamplingPolicy}.
+ */
+class SamplingPolicyTest {
+
+    @Test
+    void rejectsInvalidSampleCounts() {
+        assertThrows(IllegalArgumentException.class, () -> SamplingPolicy.fixed(0));
+        assertThrows(IllegalArgumentException.class, () -> SamplingPolicy.adaptive(1, 8));
+        assertThrows(IllegalArgumentException.class, () -> SamplingPolicy.adaptive(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> SamplingPolicy.adaptive(2, 8, 0.0));
+    }
+
+    @Test
+    void exposesSampleCounts() {
+        assertEquals(1, SamplingPolicy.single().maxSamples());
+        assertEquals(3, SamplingPolicy.fixed(3).minSamples());
+        assertEquals(3, SamplingPolicy.fixed(3).maxSamples());
+        assertEquals(2, SamplingPolicy.adaptive(2, 8).minSamples());
+        assertEquals(8, SamplingPolicy.adaptive(2, 8).maxSamples());
+    }
+
+    @Test
+    void neverStopsOnASingleScore() {
+        final var policy = SamplingPolicy.adaptive(2, 8);
+        assertFalse(policy.isConclusive(statistics(1.0), 0.5));
+    }
+
+    @Test
+    void neverStopsBelowMinSamples() {
+        final var policy = SamplingPolicy.adaptive(3, 8);
+        assertFalse(policy.isConclusive(statistics(1.0, 1.0), 0.5));
+        assertTrue(policy.isConclusive(statistics(1.0, 1.0, 1.0), 0.5));
+    }
+
+    @Test
+    void stopsOnClearCutScores() {
+        final var policy = SamplingPolicy.adaptive(2, 8);
+        assertTrue(policy.isConclusive(statistics(0.9, 0.9), 0.5));
+        assertTrue(policy.isConclusive(statistics(0.1, 0.1), 0.5));
+    }
+
+    @Test
+    void keepsSamplingIdenticalScoresCloseToTheThreshold() {
+        final var policy = SamplingPolicy.adaptive(2, 8);
+        assertFalse(policy.isConclusive(statistics(0.6, 0.6), 0.5));
+        assertFalse(policy.isConclusive(statistics(0.4, 0.4), 0.5));
+    }
+
+    @Test
+    void keepsSamplingScoresStraddlingTheThreshold() {
+        final var policy = SamplingPolicy.adaptive(2, 8);
+        assertFalse(policy.isConclusive(statistics(0.2, 0.9), 0.5));
+        assertFalse(policy.isConclusive(statistics(0.2, 0.9, 0.3, 0.8), 0.5));
+    }
+
+    @Test
+    void neverStopsBeyondMaxSamples() {
+        final var policy = SamplingPolicy.adaptive(2, 3);
+        assertFalse(policy.isConclusive(statistics(1.0, 1.0, 1.0, 1.0), 0.5));
+    }
+
+    /**
+     * Accumulates the given scores.
+     *
+     * @param scores the sampled scores.
+     * @return the {@link ScoreStatistics} of the scores.
+     */
+    private static ScoreStatistics statistics(final double... scores) {
+        final var statistics = new ScoreStatistics();
+        for (final double score : scores) {
+            statistics.add(score);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,49 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link ScoreStatistics}.
+ */
+class ScoreStatisticsTest {
+
+    private static final double DELTA = 1e-12;
+
+    @Test
+    void accumulatesMeanAndUnbiasedVariance() {
+        final var statistics = new ScoreStatistics();
+        statistics.add(0.2);
+        statistics.add(0.4);
+        statistics.add(0.6);
+
+        assertEquals(3, statistics.count());
+        assertEquals(0.4, statistics.mean(), DELTA);
+        assertEquals(0.04, statistics.variance(), DELTA);
+        assertEquals(Math.sqrt(0.04 / 3), statistics.standardError(0.0), DELTA);
+    }
+
+    @Test
+    void reportsNoVarianceAndInfiniteErrorBelowTwoScores() {
+        final var statistics = new ScoreStatistics();
+        assertEquals(0.0, statistics.variance());
+        assertEquals(Double.POSITIVE_INFINITY, statistics.standardError(0.0));
+
+        statistics.add(0.7);
+        assertEquals(0.7, statistics.mean(), DELTA);
+        assertEquals(0.0, statistics.variance());
+        assertEquals(Double.POSITIVE_INFINITY, statistics.standardError(0.0));
+    }
+
+    @Test
+    void floorsTheVarianceOfIdenticalScores() {
+        final var statistics = new ScoreStatistics();
+        statistics.add(0.8);
+        statistics.add(0.8);
+
+        assertEquals(0.0, statistics.variance(), DELTA);
+        assertEquals(0.0, statistics.standardError(0.0), DELTA);
+        assertEquals(Math.sqrt(0.01 / 2), statistics.standardError(0.01), DELTA);
+    }
+}
@@ -0,0 +1,90 @@
+package com.webbfontaine.llm.evaluation.geval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests of {@link SqlCanonicalForm}.
+ */
+class SqlCanonicalFormTest {
+
+    @Test
+    void ignoresFormattingCasingAliasesAndTrailingSemicolon() {
+        assertCanonicallyEqual(
+            "SELECT * FROM payment_means WHERE receipt = 352",
+            "select *\n  from PAYMENT_MEANS means\n where means.receipt = 352;"
+        );
+    }
+
+    @Test
+    void ignoresComments() {
+        assertCanonicallyEqual("SELECT a FROM t", "SELECT a -- all of them\nFROM t");
+    }
+
+    @Test
+    void ignoresTheOrderOfConjunctsAndEqualityOperands() {
+        assertCanonicallyEqual("SELECT a FROM t WHERE x = 1 AND y = 2", "select a from t where 2 = y and x = 1");
+    }
+
+    @Test
+    void keepsTheOrderOfDisjuncts() {
+        assertCanonicallyDistinct("SELECT a FROM t WHERE x = 1 OR y = 2", "SELECT a FROM t WHERE y = 2 OR x = 1");
+    }
+
+    @Test
+    void keepsTheOperandsOfOrderedComparisons() {
+        assertCanonicallyDistinct("SELECT a FROM t WHERE x < 1", "SELECT a FROM t WHERE 1 < x");
+    }
+
+    @Test
+    void keepsTheCaseOfStringLiterals() {
+        assertCanonicallyDistinct("SELECT a FROM t WHERE name = 'Bob'", "SELECT a FROM t WHERE name = 'bob'");
+    }
+
+    @Test
+    void keepsTheAliasesOfSelfJoins() {
+        assertEquals(
+            "SELECT a FROM t t1 JOIN t t2 ON t1.id = t2.parent",
+            SqlCanonicalForm.of("select a from t t1 join t t2 on t1.id = t2.parent")
+        );
+    }
+
+    @Test
+    void keepsConjunctsInsideCaseExpressions() {
+        assertCanonicallyDistinct(
+            "SELECT * FROM t WHERE CASE WHEN a = 1 AND b = 2 THEN 1 ELSE 0 END <> 1 AND c = 3",
+            "SELECT * FROM t WHERE CASE WHEN a = 1 AND c = 3 AND b = 2 THEN 1 ELSE 0 END <> 1"
+        );
+        assertCanonicallyEqual(
+            "SELECT * FROM t WHERE CASE WHEN a = 1 AND b = 2 THEN 1 ELSE 0 END <> 1 AND c = 3",
+            "SELECT * FROM t WHERE c = 3 AND CASE WHEN a = 1 AND b = 2 THEN 1 ELSE 0 END <> 1"
+        );
+    }
+
+    @Test
+    void keepsUnclosedQuotesAsWritten() {
+        assertCanonicallyDistinct("SELECT a FROM t WHERE x = 'unclosed", "SELECT a FROM t WHERE x = 'other");
+    }
+
+    /**
+     * Asserts that two queries have the same canonical form.
+     *
+     * @param expected the expected query.
+     * @param actual   the actual query.
+     */
+    private static void assertCanonicallyEqual(final String expected, final String actual) {
+        assertEquals(SqlCanonicalForm.of(expected), SqlCanonicalForm.of(actual));
+    }
+
+    /**
+     * Asserts that two queries have distinct canonical forms.
+     *
+     * @param expected the expected query.
+     * @param actual   the actual query.
+     */
+    private static void assertCanonicallyDistinct(final String expected, final String actual) {
+        assertNotEquals(SqlCanonicalForm.of(expected), SqlCanonicalForm.of(actual));
+    }
+}